@@ -0,0 +1,109 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.security.AuthTokenFilter;
+import com.ammas.pastries.security.JwtUtils;
+import com.ammas.pastries.security.TokenRevocationService;
+import com.ammas.pastries.security.UserDetailsImpl;
+import com.ammas.pastries.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JWT part of every authenticated request: AuthTokenFilter end to end with
+ * and without the verified-token cache, against the previous validate-then-parse path
+ * that rebuilt the key and parser for each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AuthTokenFilterBenchmark {
+    
+    private static final String SECRET = "ammasPastriesSecretKey2024PremiumCakeShopJwtTokenSecretKeyForProduction";
+    
+    @Param({"0", "10000"})
+    private long verifiedCacheSize;
+    
+    private AuthTokenFilter filter;
+    private JwtUtils jwtUtils;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Bench User");
+        user.setEmail("bench@ammaspastries.com");
+        user.setPassword("{noop}secret");
+        user.setRole(User.Role.USER);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", verifiedCacheSize);
+        jwtUtils.init();
+        
+        token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        
+        // Isolates JWT cost from the database lookup
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return principal;
+            }
+        };
+        
+        filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", new TokenRevocationService());
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.init();
+    }
+    
+    @Benchmark
+    public Object filterPath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/user");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+    
+    @Benchmark
+    public Object verifyOnce() {
+        return jwtUtils.verifyJwtToken(token);
+    }
+    
+    @Benchmark
+    public void legacyValidateThenParse(Blackhole blackhole) {
+        // What the filter did before: two parsers, two keys, two HMAC checks
+        blackhole.consume(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token));
+        blackhole.consume(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject());
+    }
+}
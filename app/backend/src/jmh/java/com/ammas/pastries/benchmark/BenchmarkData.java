@@ -0,0 +1,82 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.entity.Order;
+import com.ammas.pastries.entity.OrderItem;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic in-memory entities shaped like the seeded catalog, so benchmark inputs
+ * do not change between runs or commits.
+ */
+final class BenchmarkData {
+    
+    static final String[] CATEGORIES = {"Chocolate", "Fruit", "Classic", "Cheesecake", "Wedding", "Cupcakes"};
+    
+    private BenchmarkData() {
+    }
+    
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Royal Chocolate Truffle Cake " + id);
+        product.setDescription("Decadent layers of rich chocolate sponge with Belgian truffle ganache, "
+                + "adorned with gold leaf accents");
+        product.setPrice(BigDecimal.valueOf(4999 + id % 5000, 2));
+        product.setCategory(CATEGORIES[(int) (id % CATEGORIES.length)]);
+        product.setImageUrl("https://images.unsplash.com/photo-1578985545062-69928b1d9587?w=800");
+        product.setStock(25);
+        product.setRating(BigDecimal.valueOf(47, 1));
+        product.setReviewCount(128);
+        product.setFeatured(id % 4 == 0);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        return product;
+    }
+    
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+    
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Bench User " + id);
+        user.setEmail("bench" + id + "@ammaspastries.com");
+        user.setPassword("{noop}secret");
+        user.setRole(User.Role.USER);
+        return user;
+    }
+    
+    static Order order(int lines) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user(1));
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setDeliveryAddress("12 Baker Street");
+        order.setDeliveryCity("Chennai");
+        order.setDeliveryZip("600001");
+        order.setDeliveryPhone("+91 98765 43210");
+        order.setCreatedAt(LocalDateTime.of(2024, 6, 1, 10, 30));
+        order.setUpdatedAt(order.getCreatedAt());
+        for (int i = 1; i <= lines; i++) {
+            Product product = product(i);
+            OrderItem item = new OrderItem();
+            item.setId((long) i);
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(1 + i % 3);
+            item.setPrice(product.getPrice());
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+}
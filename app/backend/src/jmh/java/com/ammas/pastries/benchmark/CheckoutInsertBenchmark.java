@@ -0,0 +1,144 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.PastriesApplication;
+import com.ammas.pastries.dto.OrderDTO;
+import com.ammas.pastries.dto.OrderRequest;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.repository.UserRepository;
+import com.ammas.pastries.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout throughput through OrderService.createOrder: one order with {@code lines} items,
+ * each also decrementing its product's stock. "identity" maps Order and OrderItem back to
+ * AUTO_INCREMENT ids (checkout-identity-orm.xml), so Hibernate inserts them row by row;
+ * "pooled" uses the table generators and sends the items as one JDBC batch. Prepared
+ * statements per checkout are printed at the end of each trial.
+ *
+ * In-memory H2 shows the statement counts but hides round-trip cost. For real numbers use a
+ * scratch MySQL database whose name ends in _bench (its tables are created and dropped):
+ * -p url="jdbc:mysql://localhost:3306/ammas_pastries_bench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"
+ * -p username=root -p password=root
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CheckoutInsertBenchmark {
+    
+    private static final int CATALOG_SIZE = 200;
+    private static final int REQUESTS = 64;
+    
+    @Param({"identity", "pooled"})
+    private String ids;
+    
+    @Param({"1", "10"})
+    private int lines;
+    
+    @Param({"jdbc:h2:mem:checkout;MODE=MySQL;DB_CLOSE_DELAY=-1"})
+    private String url;
+    
+    @Param({"sa"})
+    private String username;
+    
+    @Param({""})
+    private String password;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Statistics statistics;
+    private Long userId;
+    private final List<OrderRequest> requests = new ArrayList<>();
+    private int next;
+    private long checkouts;
+    
+    @Setup
+    public void setup() {
+        boolean mysql = url.startsWith("jdbc:mysql:");
+        // The schema is dropped at the end of every trial
+        if (mysql && !url.matches("jdbc:mysql://[^/]+/\\w+_bench(\\?.*)?")) {
+            throw new IllegalArgumentException("Use a scratch database whose name ends in _bench, not " + url);
+        }
+        List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=" + (mysql ? "com.mysql.cj.jdbc.Driver" : "org.h2.Driver"),
+                "--spring.flyway.enabled=false",
+                "--warmup.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect="
+                        + (mysql ? "org.hibernate.dialect.MySQLDialect" : "org.hibernate.dialect.H2Dialect"),
+                "--cache.coherence.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.ammas.pastries=WARN"));
+        if ("identity".equals(ids)) {
+            properties.add("--spring.jpa.mapping-resources=checkout-identity-orm.xml");
+        }
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(PastriesApplication.class)
+                .run(properties.toArray(String[]::new));
+        
+        User user = BenchmarkData.user(1);
+        user.setId(null);
+        userId = context.getBean(UserRepository.class).save(user).getId();
+        
+        List<Product> products = BenchmarkData.products(CATALOG_SIZE);
+        products.forEach(product -> {
+            product.setId(null);
+            product.setStock(Integer.MAX_VALUE);
+        });
+        List<Long> productIds = context.getBean(ProductRepository.class).saveAll(products).stream()
+                .map(Product::getId)
+                .toList();
+        
+        // Consecutive checkouts touch different products, as different customers would
+        for (int r = 0; r < REQUESTS; r++) {
+            OrderRequest request = new OrderRequest();
+            request.setDeliveryAddress("12 Baker Street");
+            request.setDeliveryCity("Chennai");
+            request.setDeliveryZip("600001");
+            request.setDeliveryPhone("+91 98765 43210");
+            List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+            for (int i = 0; i < lines; i++) {
+                OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+                item.setProductId(productIds.get((r * lines + i) % productIds.size()));
+                item.setQuantity(1);
+                items.add(item);
+            }
+            request.setItems(items);
+            requests.add(request);
+        }
+        
+        orderService = context.getBean(OrderService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        if (checkouts > 0) {
+            System.out.printf("%n%s, %d lines: %.1f statements prepared per checkout%n",
+                    ids, lines, (double) statistics.getPrepareStatementCount() / checkouts);
+        }
+        context.close();
+    }
+    
+    @Benchmark
+    public OrderDTO checkout() {
+        checkouts++;
+        return orderService.createOrder(userId, requests.get(next++ % REQUESTS));
+    }
+}
@@ -0,0 +1,599 @@
+package com.ammas.pastries.benchmark;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.MonthDay;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a production-sized dataset straight into MySQL: customers, products, orders with
+ * items and reviews. Every row is derived from the seed and its own id, so a run is reproducible
+ * regardless of thread count or scheduling. Product popularity is Zipfian, order volume follows
+ * weekly and seasonal curves with holiday peaks, and review activity is heavy-tailed per customer.
+ *
+ * Each table is split into id ranges inserted in parallel with multi-row INSERT statements;
+ * unique and foreign key checks are off for the seeding sessions.
+ *
+ * Args (key=value): url, username, password, seed, users, products, orders, reviews, days, end,
+ * threads, batch, chunk, zipf, reset.
+ */
+public class DataSeeder {
+    
+    private static final int MAX_LINES = 4;
+    private static final String SEED_PASSWORD = "password123";
+    // Fixed salt keeps the hash, like every other column, identical between runs
+    private static final String SEED_PASSWORD_SALT = "$2a$10$ammaspastriesseedsalt.";
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMy.MqrqQzBZN0UfGNEKjN.K3MN3xVyH2xG";
+    
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rahul", "Ananya", "Vikram", "Meera", "Arjun",
+            "Divya", "Karthik", "Lakshmi", "Sanjay", "Nisha", "Rohan", "Kavya", "Aditya", "Shreya", "Emma", "Liam",
+            "Olivia", "Noah", "Sophia", "James", "Mia", "Lucas", "Amelia", "Ethan", "Zara", "Omar", "Fatima", "Yusuf"};
+    private static final String[] LAST_NAMES = {"Sharma", "Iyer", "Reddy", "Nair", "Patel", "Menon", "Rao",
+            "Krishnan", "Gupta", "Singh", "Das", "Pillai", "Smith", "Johnson", "Brown", "Williams", "Khan", "Ali"};
+    private static final String[] ADJECTIVES = {"Royal", "Classic", "Velvet", "Golden", "Rustic", "Midnight",
+            "Heavenly", "Signature", "Double", "Wild", "Honey", "Vintage", "Tropical", "Silken", "Spiced"};
+    private static final String[] FLAVOURS = {"Chocolate", "Strawberry", "Lemon", "Red Velvet", "Caramel",
+            "Pistachio", "Mango", "Blueberry", "Coffee", "Vanilla", "Raspberry", "Hazelnut", "Coconut", "Matcha"};
+    private static final String[] KINDS = {"Truffle Cake", "Cheesecake", "Layer Cake", "Cupcakes", "Tart",
+            "Gateau", "Sponge", "Mousse Cake", "Bundt Cake", "Pastry Box"};
+    private static final String[] CATEGORIES = {"Chocolate", "Fruit", "Classic", "Cheesecake", "Wedding", "Cupcakes"};
+    private static final double[] CATEGORY_WEIGHTS = {0.28, 0.22, 0.2, 0.14, 0.06, 0.1};
+    private static final String[] IMAGES = {
+            "https://images.unsplash.com/photo-1578985545062-69928b1d9587?w=800",
+            "https://images.unsplash.com/photo-1565958011703-44f9829ba187?w=800",
+            "https://images.unsplash.com/photo-1586788680434-30d3246272e8?w=800",
+            "https://images.unsplash.com/photo-1524351199678-941a58a3df26?w=800",
+            "https://images.unsplash.com/photo-1519340333755-56e9c1d04579?w=800",
+            "https://images.unsplash.com/photo-1571115177098-24ec42ed204d?w=800"};
+    private static final String[][] CITIES = {{"Chennai", "600"}, {"Bengaluru", "560"}, {"Mumbai", "400"},
+            {"Hyderabad", "500"}, {"Delhi", "110"}, {"Pune", "411"}, {"Kochi", "682"}, {"Coimbatore", "641"}};
+    private static final String[] STREETS = {"Anna Salai", "MG Road", "Park Street", "Gandhi Nagar", "Lake View Road",
+            "Temple Street", "Baker Street", "Church Road", "Beach Road", "Station Road"};
+    private static final String[] NOTES = {"Please call on arrival", "Leave with security", "Birthday surprise, ring once",
+            "Write 'Happy Anniversary' on top", "Deliver before 6pm"};
+    private static final String[][] COMMENTS = {
+            {"Arrived damaged and tasted stale.", "Not worth the price at all.", "Very disappointing this time."},
+            {"Too sweet for our taste.", "Sponge was dry.", "Looked nothing like the picture."},
+            {"Decent, but I have had better.", "Okay cake, delivery was late.", "Average flavour, nice decoration."},
+            {"Lovely cake, everyone enjoyed it.", "Fresh and well balanced.", "Great for a family celebration."},
+            {"Absolutely divine, ordering again!", "Best cake in town.", "Perfect texture and flavour, the guests loved it."}};
+    private static final String[] ACTIVE_STATUSES = {"PENDING", "CONFIRMED", "PREPARING", "READY", "DELIVERED"};
+    private static final double[] HOUR_WEIGHTS = {0.2, 0.1, 0.05, 0.05, 0.05, 0.1, 0.3, 0.8, 1.5, 2.2, 2.8, 3.4,
+            3.6, 3.0, 2.4, 2.2, 2.6, 3.4, 3.8, 3.6, 3.0, 2.0, 1.0, 0.5};
+    
+    // Must match allocationSize on the entities' table generators
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final String[] ID_GENERATOR_TABLES = {"users", "products", "orders", "order_items", "reviews"};
+    
+    private static final long SALT_USER = 1;
+    private static final long SALT_PRODUCT = 2;
+    private static final long SALT_ORDER = 3;
+    private static final long SALT_REVIEWER = 4;
+    private static final long SALT_REVIEW = 5;
+    private static final long SALT_CATALOG = 6;
+    
+    private final Map<String, String> config;
+    private final long seed;
+    private final int users;
+    private final int products;
+    private final long orders;
+    private final long reviews;
+    private final int days;
+    private final LocalDate end;
+    private final int batch;
+    private final int chunk;
+    
+    private long[] priceCents;
+    private double[] productQuality;
+    private ZipfSampler productPopularity;
+    private ZipfSampler customerLoyalty;
+    private double[] dayCdf;
+    private double[] hourCdf;
+    private String passwordHash;
+    
+    private DataSeeder(Map<String, String> config) {
+        this.config = config;
+        this.seed = Long.parseLong(config.get("seed"));
+        this.users = Integer.parseInt(config.get("users"));
+        this.products = Integer.parseInt(config.get("products"));
+        this.orders = Long.parseLong(config.get("orders"));
+        this.reviews = Long.parseLong(config.get("reviews"));
+        this.days = Integer.parseInt(config.get("days"));
+        this.end = LocalDate.parse(config.get("end"));
+        this.batch = Integer.parseInt(config.get("batch"));
+        this.chunk = Integer.parseInt(config.get("chunk"));
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = new HashMap<>();
+        config.put("url", "jdbc:mysql://localhost:3306/ammas_pastries?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true");
+        config.put("username", "root");
+        config.put("password", "root");
+        config.put("seed", "42");
+        config.put("users", "1000000");
+        config.put("products", "50000");
+        config.put("orders", "20000000");
+        config.put("reviews", "5000000");
+        config.put("days", "730");
+        config.put("end", "2025-12-31");
+        config.put("threads", String.valueOf(Math.max(4, Runtime.getRuntime().availableProcessors())));
+        config.put("batch", "1000");
+        config.put("chunk", "50000");
+        config.put("zipf", "1.07");
+        config.put("reset", "false");
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                config.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        new DataSeeder(config).run();
+    }
+    
+    private void run() throws Exception {
+        try (Connection connection = connect()) {
+            prepareTables(connection);
+        }
+        
+        long started = System.nanoTime();
+        prepareDistributions();
+        ExecutorService workers = Executors.newFixedThreadPool(Integer.parseInt(config.get("threads")));
+        try {
+            seedTable(workers, "users", users, this::insertUsers);
+            seedTable(workers, "products", products, this::insertProducts);
+            seedTable(workers, "orders", orders, this::insertOrders);
+            seedReviews(workers);
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            log("Recomputing product rating aggregates");
+            statement.executeUpdate("UPDATE products p JOIN (SELECT product_id, COUNT(*) c, SUM(rating) s,"
+                    + " SUM(rating = 1) r1, SUM(rating = 2) r2, SUM(rating = 3) r3, SUM(rating = 4) r4, SUM(rating = 5) r5"
+                    + " FROM reviews GROUP BY product_id) r ON r.product_id = p.id"
+                    + " SET p.review_count = r.c, p.rating_sum = r.s, p.rating = ROUND(r.s / r.c, 1),"
+                    + " p.rating_1_count = r.r1, p.rating_2_count = r.r2, p.rating_3_count = r.r3,"
+                    + " p.rating_4_count = r.r4, p.rating_5_count = r.r5");
+            // Seeded rows carry explicit ids; move the pooled generators past them
+            StringBuilder maxIds = new StringBuilder();
+            for (String table : ID_GENERATOR_TABLES) {
+                maxIds.append(maxIds.length() > 0 ? " UNION ALL " : "").append("SELECT '").append(table)
+                        .append("' AS name, COALESCE(MAX(id), 0) + ").append(ID_ALLOCATION_SIZE)
+                        .append(" AS next_val FROM ").append(table);
+            }
+            statement.executeUpdate("INSERT INTO id_generators (name, next_val) SELECT * FROM (" + maxIds
+                    + ") AS ids ON DUPLICATE KEY UPDATE next_val = ids.next_val");
+            log("Analyzing tables");
+            statement.execute("ANALYZE TABLE users, products, orders, order_items, reviews");
+            // Running nodes evict their second-level caches on the next coherence poll
+            statement.executeUpdate("INSERT INTO cache_versions (region, version) VALUES"
+                    + " ('catalog', 1), ('products', 1), ('users', 1) ON DUPLICATE KEY UPDATE version = version + 1");
+        }
+        log(String.format("Seeding finished in %.1f min", (System.nanoTime() - started) / 60e9));
+    }
+    
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                config.get("url"), config.get("username"), config.get("password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION unique_checks = 0, foreign_key_checks = 0");
+        }
+        return connection;
+    }
+    
+    private void prepareTables(Connection connection) throws SQLException {
+        String[] tables = {"order_items", "orders", "reviews", "cart_items", "customer_sketches",
+                "token_revocations", "products", "users"};
+        try (Statement statement = connection.createStatement()) {
+            if (Boolean.parseBoolean(config.get("reset"))) {
+                log("Truncating tables");
+                for (String table : tables) {
+                    statement.execute("TRUNCATE TABLE " + table);
+                }
+                return;
+            }
+            for (String table : tables) {
+                try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        throw new IllegalStateException(table + " is not empty; rerun with reset=true to replace its data");
+                    }
+                }
+            }
+        }
+    }
+    
+    private void prepareDistributions() {
+        passwordHash = BCrypt.hashpw(SEED_PASSWORD, SEED_PASSWORD_SALT);
+        
+        priceCents = new long[products + 1];
+        productQuality = new double[products + 1];
+        for (int id = 1; id <= products; id++) {
+            SplittableRandom random = rowRandom(SALT_CATALOG, id);
+            priceCents[id] = 1500 + random.nextInt(135) * 100 + 99;
+            productQuality[id] = 3.2 + random.nextDouble() * 1.7;
+        }
+        productPopularity = new ZipfSampler(products, Double.parseDouble(config.get("zipf")), seed);
+        // Repeat customers: a small share of accounts places a large share of orders
+        customerLoyalty = new ZipfSampler(users - 1, 0.8, seed + 1);
+        
+        double[] dayWeights = new double[days];
+        LocalDate first = end.minusDays(days - 1L);
+        for (int d = 0; d < days; d++) {
+            dayWeights[d] = dayWeight(first.plusDays(d), d);
+        }
+        dayCdf = cumulative(dayWeights);
+        hourCdf = cumulative(HOUR_WEIGHTS);
+    }
+    
+    // Growth over the period, busier weekends, a winter high season and celebration peaks
+    private double dayWeight(LocalDate date, int index) {
+        double weight = 1.0 + 0.6 * index / days;
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            weight *= 1.35;
+        } else if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
+            weight *= 1.15;
+        }
+        weight *= 1 + 0.25 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 355) / 365.0);
+        
+        MonthDay day = MonthDay.from(date);
+        LocalDate mothersDay = date.withMonth(5).with(TemporalAdjusters.dayOfWeekInMonth(2, DayOfWeek.SUNDAY));
+        if (!day.isBefore(MonthDay.of(12, 20)) && !day.isAfter(MonthDay.of(12, 24))) {
+            weight *= 2.2;
+        } else if (day.equals(MonthDay.of(12, 31))) {
+            weight *= 1.8;
+        } else if (!day.isBefore(MonthDay.of(2, 12)) && !day.isAfter(MonthDay.of(2, 14))) {
+            weight *= 1.8;
+        } else if (!date.isBefore(mothersDay.minusDays(2)) && !date.isAfter(mothersDay)) {
+            weight *= 2.0;
+        }
+        return weight;
+    }
+    
+    private void seedTable(ExecutorService workers, String table, long rows, RangeWriter writer) throws Exception {
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 1; from <= rows; from += chunk) {
+            long rangeFrom = from;
+            long rangeTo = Math.min(rows, from + chunk - 1);
+            futures.add(workers.submit(() -> {
+                try (Connection connection = connect()) {
+                    connection.setAutoCommit(false);
+                    writer.write(connection, rangeFrom, rangeTo);
+                    connection.commit();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log(String.format("Seeded %,d %s in %.1fs (%,.0f rows/s)", rows, table, seconds, rows / seconds));
+    }
+    
+    private void insertUsers(Connection connection, long from, long to) throws SQLException {
+        BatchInserter inserter = new BatchInserter(connection, "users",
+                "id, name, email, password, role, created_at, updated_at", batch);
+        LocalDateTime firstDay = end.minusDays(days + 365L).atStartOfDay();
+        for (long id = from; id <= to; id++) {
+            if (id == 1) {
+                LocalDateTime createdAt = firstDay;
+                inserter.add(id, "Admin User", "admin@ammaspastries.com", ADMIN_PASSWORD_HASH, "ADMIN", createdAt, createdAt);
+                continue;
+            }
+            SplittableRandom random = rowRandom(SALT_USER, id);
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            LocalDateTime createdAt = firstDay.plusSeconds(random.nextLong((days + 365L) * 86_400));
+            inserter.add(id, first + " " + last, first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com",
+                    passwordHash, "USER", createdAt, createdAt);
+        }
+        inserter.flush();
+    }
+    
+    private void insertProducts(Connection connection, long from, long to) throws SQLException {
+        BatchInserter inserter = new BatchInserter(connection, "products",
+                "id, name, description, price, category, image_url, stock, featured, created_at, updated_at", batch);
+        LocalDateTime firstDay = end.minusDays(days).atStartOfDay();
+        for (long id = from; id <= to; id++) {
+            SplittableRandom random = rowRandom(SALT_PRODUCT, id);
+            String flavour = FLAVOURS[random.nextInt(FLAVOURS.length)];
+            String kind = KINDS[random.nextInt(KINDS.length)];
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + flavour + " " + kind + " No. " + id;
+            String description = "Freshly baked " + flavour.toLowerCase() + " " + kind.toLowerCase()
+                    + " made to order in our kitchen, finished by hand and delivered the same day.";
+            LocalDateTime createdAt = firstDay.plusSeconds(random.nextLong(days * 86_400L));
+            inserter.add(id, name, description, BigDecimal.valueOf(priceCents[(int) id], 2),
+                    CATEGORIES[pick(CATEGORY_WEIGHTS, random.nextDouble())], IMAGES[random.nextInt(IMAGES.length)],
+                    random.nextInt(20) == 0 ? 0 : 5 + random.nextInt(200), productPopularity.rankOf((int) id) <= 12,
+                    createdAt, createdAt);
+        }
+        inserter.flush();
+    }
+    
+    // Order ids follow the seasonal day curve, so ids and created_at grow together as in production
+    private void insertOrders(Connection connection, long from, long to) throws SQLException {
+        BatchInserter orderInserter = new BatchInserter(connection, "orders",
+                "id, user_id, total_price, status, delivery_address, delivery_city, delivery_zip, delivery_phone,"
+                        + " delivery_notes, created_at, updated_at", batch);
+        BatchInserter itemInserter = new BatchInserter(connection, "order_items",
+                "id, order_id, product_id, quantity, price", batch);
+        LocalDate first = end.minusDays(days - 1L);
+        int day = search(dayCdf, (from - 0.5) / orders);
+        int[] lineProducts = new int[MAX_LINES];
+        
+        for (long id = from; id <= to; id++) {
+            double position = (id - 0.5) / orders;
+            while (dayCdf[day] < position && day < days - 1) {
+                day++;
+            }
+            SplittableRandom random = rowRandom(SALT_ORDER, id);
+            LocalDateTime createdAt = first.plusDays(day).atTime(search(hourCdf, random.nextDouble()), 0)
+                    .plusSeconds(random.nextInt(3600));
+            
+            int lines = 1 + pick(new double[] {0.55, 0.28, 0.12, 0.05}, random.nextDouble());
+            long totalCents = 0;
+            for (int line = 0; line < lines; line++) {
+                int productId = productPopularity.sample(random);
+                for (int retry = 0; retry < 3 && contains(lineProducts, line, productId); retry++) {
+                    productId = productPopularity.sample(random);
+                }
+                lineProducts[line] = productId;
+                int quantity = 1 + pick(new double[] {0.8, 0.15, 0.05}, random.nextDouble());
+                totalCents += priceCents[productId] * quantity;
+                itemInserter.add((id - 1) * MAX_LINES + line + 1, id, productId, quantity,
+                        BigDecimal.valueOf(priceCents[productId], 2));
+            }
+            
+            String status;
+            if (createdAt.toLocalDate().isBefore(end.minusDays(3))) {
+                status = random.nextInt(100) < 6 ? "CANCELLED" : "DELIVERED";
+            } else {
+                status = ACTIVE_STATUSES[random.nextInt(ACTIVE_STATUSES.length)];
+            }
+            String[] city = CITIES[random.nextInt(CITIES.length)];
+            orderInserter.add(id, 1 + customerLoyalty.sample(random), BigDecimal.valueOf(totalCents, 2), status,
+                    (1 + random.nextInt(300)) + ", " + STREETS[random.nextInt(STREETS.length)],
+                    city[0], city[1] + String.format("%03d", random.nextInt(100)),
+                    "+91 9" + (100_000_000L + random.nextLong(900_000_000L)),
+                    random.nextInt(10) == 0 ? NOTES[random.nextInt(NOTES.length)] : null,
+                    createdAt, createdAt.plusHours(status.equals("DELIVERED") ? 6 : 0));
+        }
+        orderInserter.flush();
+        itemInserter.flush();
+    }
+    
+    // Review activity is heavy-tailed per customer; each customer reviews distinct products
+    private void seedReviews(ExecutorService workers) throws Exception {
+        long[] offsets = new long[users + 2];
+        double[] activity = new double[users + 2];
+        double total = 0;
+        for (int id = 2; id <= users; id++) {
+            activity[id] = Math.min(200, Math.pow(1 - rowRandom(SALT_REVIEWER, id).nextDouble(), -1 / 1.5));
+            total += activity[id];
+        }
+        double cumulative = 0;
+        for (int id = 2; id <= users; id++) {
+            cumulative += activity[id];
+            offsets[id + 1] = Math.min((long) Math.floor(reviews * cumulative / total), offsets[id] + products);
+        }
+        
+        AtomicLong seeded = new AtomicLong();
+        seedTable(workers, "reviews", users, (connection, from, to) -> {
+            BatchInserter inserter = new BatchInserter(connection, "reviews",
+                    "id, user_id, product_id, rating, comment, created_at", batch);
+            LocalDateTime firstDay = end.minusDays(days).atStartOfDay();
+            Set<Integer> reviewed = new HashSet<>();
+            for (long userId = Math.max(2, from); userId <= to; userId++) {
+                SplittableRandom random = rowRandom(SALT_REVIEW, userId);
+                reviewed.clear();
+                for (long id = offsets[(int) userId] + 1; id <= offsets[(int) userId + 1]; id++) {
+                    int productId = productPopularity.sample(random);
+                    while (!reviewed.add(productId)) {
+                        productId = 1 + random.nextInt(products);
+                    }
+                    int rating = (int) Math.max(1, Math.min(5, Math.round(productQuality[productId] + random.nextGaussian())));
+                    String[] comments = COMMENTS[rating - 1];
+                    inserter.add(id, userId, productId, rating, comments[random.nextInt(comments.length)],
+                            firstDay.plusSeconds(random.nextLong(days * 86_400L)));
+                }
+                seeded.addAndGet(offsets[(int) userId + 1] - offsets[(int) userId]);
+            }
+            inserter.flush();
+        });
+        log(String.format("  (%,d reviews across %,d customers)", seeded.get(), users - 1));
+    }
+    
+    private SplittableRandom rowRandom(long salt, long id) {
+        return new SplittableRandom(mix64(seed * 0x9E3779B97F4A7C15L + (salt << 48) + id));
+    }
+    
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+    
+    // First index whose cumulative weight reaches u
+    private static int search(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static int pick(double[] weights, double u) {
+        for (int i = 0; i < weights.length; i++) {
+            u -= weights[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+    
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static void log(String message) {
+        System.out.println("[seed] " + message);
+    }
+    
+    @FunctionalInterface
+    private interface RangeWriter {
+        void write(Connection connection, long from, long to) throws SQLException;
+    }
+    
+    /**
+     * Zipf over 1..n: rank k is drawn with probability proportional to 1/k^s. Ranks map to ids
+     * through a seeded permutation, so the best sellers are spread across the id space.
+     */
+    private static class ZipfSampler {
+        private final double[] cdf;
+        private final int[] idOfRank;
+        private final int[] rankOfId;
+        
+        ZipfSampler(int n, double exponent, long seed) {
+            double[] weights = new double[n];
+            for (int k = 0; k < n; k++) {
+                weights[k] = 1 / Math.pow(k + 1, exponent);
+            }
+            cdf = cumulative(weights);
+            
+            idOfRank = new int[n];
+            rankOfId = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                idOfRank[i] = i + 1;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = idOfRank[i];
+                idOfRank[i] = idOfRank[j];
+                idOfRank[j] = swap;
+            }
+            for (int i = 0; i < n; i++) {
+                rankOfId[idOfRank[i]] = i + 1;
+            }
+        }
+        
+        int sample(SplittableRandom random) {
+            return idOfRank[search(cdf, random.nextDouble())];
+        }
+        
+        int rankOf(int id) {
+            return rankOfId[id];
+        }
+    }
+    
+    /**
+     * Buffers rows and writes them as one multi-row INSERT per batch, reusing the prepared
+     * statement for full batches.
+     */
+    private static class BatchInserter {
+        private final Connection connection;
+        private final String prefix;
+        private final String rowPlaceholders;
+        private final int columns;
+        private final int batchRows;
+        private final Object[] values;
+        private PreparedStatement fullBatch;
+        private int rows;
+        
+        BatchInserter(Connection connection, String table, String columnList, int batchRows) {
+            this.connection = connection;
+            this.prefix = "INSERT INTO " + table + " (" + columnList + ") VALUES ";
+            this.columns = columnList.split(",").length;
+            this.rowPlaceholders = "(" + "?,".repeat(columns - 1) + "?)";
+            this.batchRows = batchRows;
+            this.values = new Object[columns * batchRows];
+        }
+        
+        void add(Object... row) throws SQLException {
+            System.arraycopy(row, 0, values, rows * columns, columns);
+            if (++rows == batchRows) {
+                flush();
+            }
+        }
+        
+        void flush() throws SQLException {
+            if (rows == 0) {
+                return;
+            }
+            if (rows == batchRows) {
+                if (fullBatch == null) {
+                    fullBatch = connection.prepareStatement(sql(batchRows));
+                }
+                execute(fullBatch);
+            } else {
+                try (PreparedStatement statement = connection.prepareStatement(sql(rows))) {
+                    execute(statement);
+                }
+            }
+            rows = 0;
+        }
+        
+        private void execute(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < rows * columns; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.executeUpdate();
+        }
+        
+        private String sql(int rowCount) {
+            StringBuilder sql = new StringBuilder(prefix.length() + rowCount * (rowPlaceholders.length() + 1)).append(prefix);
+            for (int i = 0; i < rowCount; i++) {
+                sql.append(i > 0 ? "," : "").append(rowPlaceholders);
+            }
+            return sql.toString();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.dto.OrderDTO;
+import com.ammas.pastries.dto.ProductDTO;
+import com.ammas.pastries.entity.Order;
+import com.ammas.pastries.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog and order response building: entity to DTO mapping, and Jackson serialization of
+ * a product page with the same ObjectMapper defaults Spring Boot configures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+    
+    @Param({"12", "48"})
+    private int pageSize;
+    
+    private Page<Product> productPage;
+    private Page<ProductDTO> productDtoPage;
+    private Order order;
+    private ObjectMapper objectMapper;
+    
+    @Setup
+    public void setup() {
+        List<Product> products = BenchmarkData.products(pageSize);
+        productPage = new PageImpl<>(products, PageRequest.of(0, pageSize), 1000);
+        productDtoPage = productPage.map(ProductDTO::fromEntity);
+        order = BenchmarkData.order(5);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+    
+    @Benchmark
+    public Page<ProductDTO> mapProductPage() {
+        return productPage.map(ProductDTO::fromEntity);
+    }
+    
+    @Benchmark
+    public OrderDTO mapOrder() {
+        return OrderDTO.fromEntity(order);
+    }
+    
+    @Benchmark
+    public byte[] serializeProductPage() throws Exception {
+        return objectMapper.writeValueAsBytes(productDtoPage);
+    }
+    
+    @Benchmark
+    public byte[] mapAndSerializeProductPage() throws Exception {
+        return objectMapper.writeValueAsBytes(productPage.map(ProductDTO::fromEntity));
+    }
+}
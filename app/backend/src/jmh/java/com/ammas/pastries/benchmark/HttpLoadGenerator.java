@@ -0,0 +1,113 @@
+package com.ammas.pastries.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running backend: each of N workers sends its next request
+ * as soon as the previous one returns, so throughput shows how much concurrency the server
+ * really sustains. Used to compare platform and virtual-thread request handling.
+ *
+ * Args: baseUrl [concurrency=200] [durationSeconds=60] [warmupSeconds=10] [paths,comma,separated]
+ */
+public class HttpLoadGenerator {
+    
+    private static final String DEFAULT_PATHS =
+            "/api/products,/api/products/featured,/api/products/categories,/api/products/1,/api/reviews/product/1";
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: HttpLoadGenerator baseUrl [concurrency] [durationSeconds] [warmupSeconds] [paths]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        String[] paths = (args.length > 4 ? args[4] : DEFAULT_PATHS).split(",");
+        
+        List<URI> targets = new ArrayList<>();
+        for (String path : paths) {
+            targets.add(URI.create(baseUrl + path.trim()));
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8)))
+                .build();
+        
+        System.out.printf("Warming up %s with %d workers for %ds%n", baseUrl, concurrency, warmupSeconds);
+        run(client, targets, concurrency, warmupSeconds);
+        
+        System.out.printf("Measuring for %ds%n", durationSeconds);
+        Result result = run(client, targets, concurrency, durationSeconds);
+        result.print(durationSeconds);
+        System.exit(0);
+    }
+    
+    private static Result run(HttpClient client, List<URI> targets, int concurrency, int seconds)
+            throws InterruptedException {
+        Result result = new Result();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w;
+            workers.execute(() -> {
+                int next = offset;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(targets.get(next++ % targets.size()))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        result.record(status, (System.nanoTime() - start) / 1000);
+                    } catch (Exception e) {
+                        result.failed.increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return result;
+    }
+    
+    private static class Result {
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        
+        void record(int status, long micros) {
+            if (status == 503) {
+                shed.increment();
+            } else if (status >= 400) {
+                errors.increment();
+            } else {
+                ok.increment();
+                latencies.record(micros);
+            }
+        }
+        
+        void print(int seconds) {
+            System.out.printf("ok=%d shed(503)=%d errors=%d failed=%d%n",
+                    ok.sum(), shed.sum(), errors.sum(), failed.sum());
+            System.out.printf("throughput=%.1f req/s%n", ok.sum() / (double) seconds);
+            System.out.printf("latency ms p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    latencies.percentile(50) / 1000.0, latencies.percentile(90) / 1000.0,
+                    latencies.percentile(99) / 1000.0, latencies.percentile(99.9) / 1000.0,
+                    latencies.max() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.security.JwtUtils;
+import com.ammas.pastries.security.SecurityEventLog;
+import com.ammas.pastries.security.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost on login and on every authenticated request. The
+ * verified-token cache is off so each call pays for the HMAC check. validateTampered is
+ * the path of a token-guessing flood, including its sampled security log.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+    
+    private static final String SECRET = "ammasPastriesSecretKey2024PremiumCakeShopJwtTokenSecretKeyForProduction";
+    
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+    private String tamperedToken;
+    
+    @Setup
+    public void setup() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 0L);
+        jwtUtils.init();
+        
+        SecurityEventLog securityEventLog = new SecurityEventLog();
+        ReflectionTestUtils.setField(securityEventLog, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(securityEventLog, "burst", 5);
+        ReflectionTestUtils.setField(securityEventLog, "sampleRate", 100);
+        ReflectionTestUtils.setField(securityEventLog, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(jwtUtils, "securityEventLog", securityEventLog);
+        
+        UserDetailsImpl principal = UserDetailsImpl.build(BenchmarkData.user(1));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+        tamperedToken = token.substring(0, token.length() - 4) + "AAAA";
+    }
+    
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+    
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+    
+    @Benchmark
+    public boolean validateTampered() {
+        return jwtUtils.validateJwtToken(tamperedToken);
+    }
+    
+    @Benchmark
+    public String usernameFromToken() {
+        return jwtUtils.getUsernameFromJwtToken(token);
+    }
+}
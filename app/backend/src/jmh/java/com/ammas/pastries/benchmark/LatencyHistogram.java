@@ -0,0 +1,81 @@
+package com.ammas.pastries.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram over microseconds: 32 sub-buckets per power of two, so every
+ * reported percentile is within about 3% of the recorded value.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private volatile long max;
+    
+    void record(long micros) {
+        long value = Math.max(1, micros);
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        if (value > max) {
+            max = value;
+        }
+    }
+    
+    long percentile(double percentile) {
+        long target = (long) Math.ceil(total.sum() * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target && seen > 0) {
+                return upperBoundOf(i);
+            }
+        }
+        return max;
+    }
+    
+    long max() {
+        return max;
+    }
+    
+    long count() {
+        return total.sum();
+    }
+    
+    /**
+     * Non-empty buckets as [upper bound in microseconds, count] pairs, for reports.
+     */
+    List<long[]> buckets() {
+        List<long[]> buckets = new ArrayList<>();
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                buckets.add(new long[]{upperBoundOf(i), count});
+            }
+        }
+        return buckets;
+    }
+    
+    private static int indexOf(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    private static long upperBoundOf(int index) {
+        int group = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (group == 0) {
+            return subBucket;
+        }
+        int exponent = group + SUB_BUCKET_BITS - 1;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
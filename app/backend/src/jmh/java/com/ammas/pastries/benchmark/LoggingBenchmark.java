@@ -0,0 +1,124 @@
+package com.ammas.pastries.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import com.ammas.pastries.logging.CorrelationIdFilter;
+import com.ammas.pastries.security.SecurityEventLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost paid by the request thread: ordinary request log lines written synchronously
+ * versus published to the ring buffer, in text and JSON, and a flood of rejected tokens logged
+ * on every event versus through SecurityEventLog. Output goes to a temp file so the
+ * synchronous case pays for real writes. Run with -t 8 to see lock contention on the appender.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    
+    @Param({"sync", "async"})
+    private String mode;
+    
+    @Param({"text", "json"})
+    private String format;
+    
+    private LoggerContext context;
+    private Path file;
+    private org.slf4j.Logger log;
+    private SecurityEventLog securityEventLog;
+    
+    @Setup
+    public void setup() throws IOException {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        file = Files.createTempFile("logging-benchmark", ".log");
+        
+        Encoder<ILoggingEvent> encoder;
+        if ("json".equals(format)) {
+            LogstashEncoder json = new LogstashEncoder();
+            json.setContext(context);
+            encoder = json;
+        } else {
+            PatternLayoutEncoder text = new PatternLayoutEncoder();
+            text.setContext(context);
+            text.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] [%X{requestId:--}] %-40.40logger{39} : %m %kvp%n%wEx");
+            encoder = text;
+        }
+        encoder.start();
+        
+        OutputStreamAppender<ILoggingEvent> fileAppender = new OutputStreamAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("file");
+        fileAppender.setEncoder(encoder);
+        fileAppender.setOutputStream(new FileOutputStream(file.toFile()));
+        fileAppender.start();
+        
+        Appender<ILoggingEvent> appender = fileAppender;
+        if ("async".equals(mode)) {
+            LoggingEventAsyncDisruptorAppender async = new LoggingEventAsyncDisruptorAppender();
+            async.setContext(context);
+            async.setName("async");
+            async.setRingBufferSize(8192);
+            async.setAppendTimeout(Duration.buildByMilliseconds(0));
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+        
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        
+        log = LoggerFactory.getLogger("com.ammas.pastries.service.OrderService");
+        MDC.put(CorrelationIdFilter.MDC_KEY, "9f3c2a7be41d0c55");
+        
+        securityEventLog = new SecurityEventLog();
+        ReflectionTestUtils.setField(securityEventLog, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(securityEventLog, "burst", 5);
+        ReflectionTestUtils.setField(securityEventLog, "sampleRate", 100);
+        ReflectionTestUtils.setField(securityEventLog, "windowMs", 60_000L);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        MDC.clear();
+        context.stop();
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public void requestLines() {
+        log.info("Creating order for user {} with {} items", 42L, 3);
+        log.info("Order {} created, total {}", 1_000_123L, "57.50");
+    }
+    
+    @Benchmark
+    public void rejectedTokenEveryEvent() {
+        log.error("Invalid JWT token: {}", "Malformed protected header JSON");
+    }
+    
+    @Benchmark
+    public void rejectedTokenSampled() {
+        securityEventLog.warn("jwt.invalid", "Invalid JWT token: {}", "Malformed protected header JSON");
+    }
+}
@@ -0,0 +1,33 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.entity.OrderItem;
+import com.ammas.pastries.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BigDecimal total computed for every checkout, across basket sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class OrderTotalBenchmark {
+    
+    @Param({"1", "10", "50"})
+    private int lines;
+    
+    private List<OrderItem> items;
+    
+    @Setup
+    public void setup() {
+        items = BenchmarkData.order(lines).getOrderItems();
+    }
+    
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return OrderService.calculateTotal(items);
+    }
+}
@@ -0,0 +1,392 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.PastriesApplication;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.Review;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.metrics.SqlAssert;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.repository.ReviewRepository;
+import com.ammas.pastries.repository.UserRepository;
+import com.ammas.pastries.security.JwtUtils;
+import com.ammas.pastries.security.UserDetailsImpl;
+import com.ammas.pastries.service.ProductRatingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end performance regression suite. Boots the application on an in-memory H2
+ * database in MySQL mode, seeds a fixed dataset and drives a weighted storefront mix over
+ * real HTTP with a closed-loop load generator. Writes per-endpoint throughput, latency
+ * percentiles and histograms, and SQL statements per request to a JSON report, and exits
+ * non-zero when a configured threshold is exceeded so the Maven build fails.
+ *
+ * Args (key=value): concurrency, duration, warmup (seconds), report, thresholds, seed,
+ * mix (e.g. browse:35,search:15,detail:25,login:5,order:15,admin:5).
+ */
+public class PerfSuite {
+    
+    private static final String PASSWORD = "perf-password";
+    private static final String[] SEARCH_TERMS = {"chocolate", "truffle", "cake 1", "velvet", "cheese", "royal"};
+    private static final String DEFAULT_MIX = "browse:35,search:15,detail:25,login:5,order:15,admin:5";
+    
+    private static final int USERS = 200;
+    private static final int PRODUCTS = 500;
+    private static final int REVIEWED_PRODUCTS = 100;
+    private static final int REVIEWS_PER_PRODUCT = 8;
+    
+    private final Map<String, String> config;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    
+    private String baseUrl;
+    private final List<String> userTokens = new ArrayList<>();
+    private String adminToken;
+    
+    private PerfSuite(Map<String, String> config) {
+        this.config = config;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = new HashMap<>(Map.of(
+                "concurrency", "32",
+                "duration", "60",
+                "warmup", "15",
+                "report", "target/perf-report.json",
+                "thresholds", "src/jmh/resources/perf-thresholds.properties",
+                "seed", "42",
+                "mix", DEFAULT_MIX));
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                config.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        System.exit(new PerfSuite(config).run());
+    }
+    
+    private int run() throws Exception {
+        try (ConfigurableApplicationContext context = startApplication()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            seed(context);
+            
+            int concurrency = Integer.parseInt(config.get("concurrency"));
+            System.out.printf("Warming up with %d workers for %ss%n", concurrency, config.get("warmup"));
+            drive(concurrency, Integer.parseInt(config.get("warmup")));
+            stats.clear();
+            
+            int duration = Integer.parseInt(config.get("duration"));
+            System.out.printf("Measuring for %ds%n", duration);
+            drive(concurrency, duration);
+            
+            List<String> violations = checkThresholds(duration);
+            writeReport(duration, violations);
+            printSummary(duration, violations);
+            return violations.isEmpty() ? 0 : 1;
+        }
+    }
+    
+    private ConfigurableApplicationContext startApplication() {
+        // Command-line arguments, so they take precedence over application.properties
+        return new SpringApplicationBuilder(PastriesApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:perf;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.flyway.enabled=false",
+                        "--warmup.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        // Statement counts per request come back in the Server-Timing header
+                        "--metrics.server-timing.enabled=true",
+                        // One client address would otherwise hit the per-IP login bucket at once
+                        "--security.rate-limit.auth.enabled=false",
+                        "--cache.coherence.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.ammas.pastries=WARN");
+    }
+    
+    private void seed(ConfigurableApplicationContext context) {
+        Random random = new Random(Long.parseLong(config.get("seed")));
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            User user = BenchmarkData.user(i);
+            user.setId(null);
+            user.setPassword(passwordHash);
+            users.add(user);
+        }
+        User admin = BenchmarkData.user(0);
+        admin.setId(null);
+        admin.setEmail("perf-admin@ammaspastries.com");
+        admin.setPassword(passwordHash);
+        admin.setRole(User.Role.ADMIN);
+        users.add(admin);
+        users = context.getBean(UserRepository.class).saveAll(users);
+        
+        List<Product> products = BenchmarkData.products(PRODUCTS);
+        products.forEach(product -> {
+            product.setId(null);
+            product.setStock(10_000_000);
+        });
+        products = context.getBean(ProductRepository.class).saveAll(products);
+        
+        List<Review> reviews = new ArrayList<>();
+        for (int p = 0; p < REVIEWED_PRODUCTS; p++) {
+            for (int r = 0; r < REVIEWS_PER_PRODUCT; r++) {
+                Review review = new Review();
+                review.setProduct(products.get(p));
+                review.setUser(users.get((p + r * 17) % USERS));
+                review.setRating(1 + random.nextInt(5));
+                review.setComment("Lovely cake, ordered again for the weekend " + r);
+                reviews.add(review);
+            }
+        }
+        context.getBean(ReviewRepository.class).saveAll(reviews);
+        context.getBean(ProductRatingService.class).reconcile();
+        
+        JwtUtils jwtUtils = context.getBean(JwtUtils.class);
+        for (User user : users) {
+            UserDetailsImpl principal = UserDetailsImpl.build(user);
+            String token = jwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            if (user.getRole() == User.Role.ADMIN) {
+                adminToken = token;
+            } else {
+                userTokens.add(token);
+            }
+        }
+    }
+    
+    private void drive(int concurrency, int seconds) throws InterruptedException {
+        List<String> operations = weightedOperations(config.get("mix"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long seed = Long.parseLong(config.get("seed"));
+        
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Random random = new Random(seed * 31 + w);
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    perform(operations.get(random.nextInt(operations.size())), random);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+    
+    private void perform(String operation, Random random) {
+        switch (operation) {
+            case "browse" -> send("browse", get("/api/products?page=" + random.nextInt(20) + "&size=12", null));
+            case "search" -> send("search", get("/api/products?search="
+                    + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "%20"), null));
+            case "detail" -> {
+                long productId = popularProduct(random);
+                send("detail", get("/api/products/" + productId, null));
+                send("reviews", get("/api/reviews/product/" + productId, null));
+            }
+            case "login" -> send("login", post("/api/auth/login", null,
+                    "{\"email\":\"bench" + (1 + random.nextInt(USERS)) + "@ammaspastries.com\",\"password\":\"" + PASSWORD + "\"}"));
+            case "order" -> {
+                StringBuilder items = new StringBuilder();
+                int lines = 1 + random.nextInt(3);
+                for (int i = 0; i < lines; i++) {
+                    items.append(i > 0 ? "," : "")
+                            .append("{\"productId\":").append(popularProduct(random) + i)
+                            .append(",\"quantity\":").append(1 + random.nextInt(2)).append('}');
+                }
+                send("order", post("/api/orders", userTokens.get(random.nextInt(userTokens.size())),
+                        "{\"items\":[" + items + "],\"deliveryAddress\":\"12 Baker Street\","
+                                + "\"deliveryCity\":\"Chennai\",\"deliveryZip\":\"600001\",\"deliveryPhone\":\"+91 98765 43210\"}"));
+            }
+            case "admin" -> send("admin", get("/api/admin/dashboard/stats", adminToken));
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+    
+    // Skewed towards low ids, so a few products take most of the traffic as on the real shop
+    private long popularProduct(Random random) {
+        double u = random.nextDouble();
+        return 1 + (long) ((PRODUCTS - 3) * u * u * u);
+    }
+    
+    private HttpRequest.Builder get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+    
+    private HttpRequest.Builder post(String path, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+    
+    private void send(String endpoint, HttpRequest.Builder request) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                endpointStats.errors.increment();
+                return;
+            }
+            endpointStats.latencies.record((System.nanoTime() - start) / 1000);
+            int statements = SqlAssert.statementsIn(response.headers().firstValue("Server-Timing").orElse(null));
+            if (statements >= 0) {
+                endpointStats.sqlStatements.add(statements);
+                endpointStats.sqlRequests.increment();
+            }
+        } catch (Exception e) {
+            endpointStats.errors.increment();
+        }
+    }
+    
+    private static List<String> weightedOperations(String mix) {
+        List<String> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            for (int i = 0; i < Integer.parseInt(parts[1]); i++) {
+                operations.add(parts[0]);
+            }
+        }
+        return operations;
+    }
+    
+    private List<String> checkThresholds(int duration) throws Exception {
+        Properties thresholds = new Properties();
+        File file = new File(config.get("thresholds"));
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                thresholds.load(in);
+            }
+        }
+        
+        List<String> violations = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            String endpoint = entry.getKey();
+            EndpointStats endpointStats = entry.getValue();
+            requests += endpointStats.latencies.count() + endpointStats.errors.sum();
+            errors += endpointStats.errors.sum();
+            
+            double p99Ms = endpointStats.latencies.percentile(99) / 1000.0;
+            String maxP99 = thresholds.getProperty(endpoint + ".max-p99-ms");
+            if (maxP99 != null && p99Ms > Double.parseDouble(maxP99)) {
+                violations.add(String.format("%s p99 %.1f ms > %s ms", endpoint, p99Ms, maxP99));
+            }
+            double sqlPerRequest = sqlPerRequest(endpoint);
+            String maxSql = thresholds.getProperty(endpoint + ".max-sql-per-request");
+            if (maxSql != null && sqlPerRequest > Double.parseDouble(maxSql)) {
+                violations.add(String.format("%s %.1f SQL statements/request > %s", endpoint, sqlPerRequest, maxSql));
+            }
+        }
+        
+        double rps = (requests - errors) / (double) duration;
+        String minRps = thresholds.getProperty("overall.min-rps");
+        if (minRps != null && rps < Double.parseDouble(minRps)) {
+            violations.add(String.format("throughput %.1f req/s < %s req/s", rps, minRps));
+        }
+        double errorRate = requests == 0 ? 0 : errors / (double) requests;
+        String maxErrorRate = thresholds.getProperty("overall.max-error-rate");
+        if (maxErrorRate != null && errorRate > Double.parseDouble(maxErrorRate)) {
+            violations.add(String.format("error rate %.4f > %s", errorRate, maxErrorRate));
+        }
+        return violations;
+    }
+    
+    private double sqlPerRequest(String endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        long requests = endpointStats.sqlRequests.sum();
+        return requests == 0 ? 0 : endpointStats.sqlStatements.sum() / (double) requests;
+    }
+    
+    private void writeReport(int duration, List<String> violations) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.keySet().stream().sorted().forEach(endpoint -> {
+            EndpointStats endpointStats = stats.get(endpoint);
+            LatencyHistogram latencies = endpointStats.latencies;
+            Map<String, Object> latencyMs = new LinkedHashMap<>();
+            latencyMs.put("p50", latencies.percentile(50) / 1000.0);
+            latencyMs.put("p90", latencies.percentile(90) / 1000.0);
+            latencyMs.put("p99", latencies.percentile(99) / 1000.0);
+            latencyMs.put("p999", latencies.percentile(99.9) / 1000.0);
+            latencyMs.put("max", latencies.max() / 1000.0);
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", latencies.count());
+            entry.put("errors", endpointStats.errors.sum());
+            entry.put("rps", latencies.count() / (double) duration);
+            entry.put("latencyMs", latencyMs);
+            entry.put("sqlStatements", endpointStats.sqlStatements.sum());
+            entry.put("sqlPerRequest", sqlPerRequest(endpoint));
+            entry.put("histogramMicros", latencies.buckets());
+            endpoints.put(endpoint, entry);
+        });
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", new LinkedHashMap<>(config));
+        report.put("endpoints", endpoints);
+        report.put("violations", violations);
+        
+        File file = new File(config.get("report"));
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+    }
+    
+    private void printSummary(int duration, List<String> violations) {
+        System.out.printf("%-10s %9s %7s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "sql/req");
+        stats.keySet().stream().sorted().forEach(endpoint -> {
+            EndpointStats endpointStats = stats.get(endpoint);
+            LatencyHistogram latencies = endpointStats.latencies;
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %8.1f%n",
+                    endpoint, latencies.count(), endpointStats.errors.sum(), latencies.count() / (double) duration,
+                    latencies.percentile(50) / 1000.0, latencies.percentile(99) / 1000.0,
+                    latencies.max() / 1000.0, sqlPerRequest(endpoint));
+        });
+        System.out.println("Report written to " + config.get("report"));
+        violations.forEach(violation -> System.out.println("THRESHOLD EXCEEDED: " + violation));
+    }
+    
+    private static class EndpointStats {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder sqlStatements = new LongAdder();
+        private final LongAdder sqlRequests = new LongAdder();
+    }
+}
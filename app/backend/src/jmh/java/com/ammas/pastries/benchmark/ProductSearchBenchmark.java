@@ -0,0 +1,81 @@
+package com.ammas.pastries.benchmark;
+
+import com.ammas.pastries.PastriesApplication;
+import com.ammas.pastries.dto.ProductDTO;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shop page queries through ProductService against an in-memory H2 database in MySQL mode
+ * holding a fixed catalog. Absolute numbers differ from MySQL; the point is catching
+ * regressions in the query and mapping path between commits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+    
+    @Param({"1000"})
+    private int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    
+    @Setup
+    public void setup() {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(PastriesApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.flyway.enabled=false",
+                        "--warmup.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--cache.coherence.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.ammas.pastries=WARN");
+        
+        List<Product> products = BenchmarkData.products(catalogSize);
+        products.forEach(product -> product.setId(null));
+        context.getBean(ProductRepository.class).saveAll(products);
+        productService = context.getBean(ProductService.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Page<ProductDTO> firstPage() {
+        return productService.getProducts(null, null, "name", "asc", 0, 12);
+    }
+    
+    @Benchmark
+    public Page<ProductDTO> categoryPage() {
+        return productService.getProducts("Chocolate", null, "price", "desc", 0, 12);
+    }
+    
+    @Benchmark
+    public Page<ProductDTO> textSearch() {
+        return productService.getProducts(null, "truffle cake 7", "name", "asc", 0, 12);
+    }
+    
+    @Benchmark
+    public List<String> categories() {
+        return productService.getAllCategories();
+    }
+}
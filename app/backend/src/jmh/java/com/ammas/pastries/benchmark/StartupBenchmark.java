@@ -0,0 +1,250 @@
+package com.ammas.pastries.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Startup cost of each way of launching the packaged application: time from process start
+ * until the readiness probe answers 200, then latency of the first minute of storefront
+ * traffic (closed loop). Comparing warmup=true,false shows what the warm-up phase adds to
+ * readiness and takes off the first-minute p99. Needs the jars from mvn -Pfast-startup package
+ * and the database the application is configured for.
+ *
+ * Modes: jar (fat jar), exploded (plain jar + lib/), aot (exploded with Spring AOT),
+ * aot-cds (aot with the AppCDS archive).
+ *
+ * Args (key=value): modes, warmup, runs, port, readiness, paths, load (seconds, 0 to skip),
+ * concurrency, timeout (seconds), report. Arguments starting with -- are passed to the
+ * application, e.g. --spring.profiles.active=prod.
+ */
+public class StartupBenchmark {
+    
+    private static final String DEFAULT_PATHS =
+            "/api/products,/api/products/featured,/api/products/categories,/api/products?search=cake,/api/products/1,/api/reviews/product/1";
+    
+    private final Map<String, String> config;
+    private final List<String> applicationArgs;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+    
+    private StartupBenchmark(Map<String, String> config, List<String> applicationArgs) {
+        this.config = config;
+        this.applicationArgs = applicationArgs;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = new HashMap<>(Map.ofEntries(
+                Map.entry("modes", "jar,exploded,aot,aot-cds"),
+                Map.entry("warmup", "true"),
+                Map.entry("runs", "5"),
+                Map.entry("port", "18080"),
+                Map.entry("readiness", "/actuator/health/readiness"),
+                Map.entry("paths", DEFAULT_PATHS),
+                Map.entry("load", "60"),
+                Map.entry("concurrency", "16"),
+                Map.entry("timeout", "180"),
+                Map.entry("report", "target/startup-report.json")));
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (eq > 0) {
+                config.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        System.exit(new StartupBenchmark(config, applicationArgs).run());
+    }
+    
+    private int run() throws Exception {
+        int runs = Integer.parseInt(config.get("runs"));
+        Map<String, Object> results = new LinkedHashMap<>();
+        boolean failed = false;
+        
+        for (String mode : config.get("modes").split(",")) {
+            for (String warmup : config.get("warmup").split(",")) {
+                String variant = mode + ("true".equals(warmup) ? "+warmup" : "");
+                List<Long> readyMillis = new ArrayList<>();
+                LatencyHistogram latencies = new LatencyHistogram();
+                LongAdder errors = new LongAdder();
+                for (int i = 0; i < runs; i++) {
+                    long elapsed = startAndMeasure(mode, warmup, variant + "-" + (i + 1), latencies, errors);
+                    if (elapsed < 0) {
+                        System.out.printf("%s run %d was not ready within %ss, see target/startup-logs%n",
+                                variant, i + 1, config.get("timeout"));
+                        failed = true;
+                        break;
+                    }
+                    System.out.printf("%s run %d: ready in %d ms%n", variant, i + 1, elapsed);
+                    readyMillis.add(elapsed);
+                }
+                if (readyMillis.isEmpty()) {
+                    continue;
+                }
+                Collections.sort(readyMillis);
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("runs", readyMillis.size());
+                entry.put("readyMinMs", readyMillis.get(0));
+                entry.put("readyMedianMs", readyMillis.get(readyMillis.size() / 2));
+                entry.put("readyMaxMs", readyMillis.get(readyMillis.size() - 1));
+                entry.put("loadRequests", latencies.count());
+                entry.put("loadErrors", errors.sum());
+                entry.put("loadP50Ms", latencies.percentile(50) / 1000.0);
+                entry.put("loadP99Ms", latencies.percentile(99) / 1000.0);
+                entry.put("loadMaxMs", latencies.max() / 1000.0);
+                results.put(variant, entry);
+            }
+        }
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", new LinkedHashMap<>(config));
+        report.put("applicationArgs", applicationArgs);
+        report.put("variants", results);
+        File file = new File(config.get("report"));
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        
+        System.out.printf("%-18s %10s %10s %9s %9s %9s%n", "variant", "ready ms", "requests", "p50 ms", "p99 ms", "max ms");
+        results.forEach((variant, entry) -> {
+            Map<?, ?> values = (Map<?, ?>) entry;
+            System.out.printf("%-18s %10s %10s %9.2f %9.2f %9.2f%n", variant, values.get("readyMedianMs"),
+                    values.get("loadRequests"), values.get("loadP50Ms"), values.get("loadP99Ms"), values.get("loadMaxMs"));
+        });
+        System.out.println("Report written to " + config.get("report"));
+        return failed ? 1 : 0;
+    }
+    
+    /**
+     * Starts the application, waits for readiness and drives the first-minute load.
+     *
+     * @return milliseconds from process start until ready, or -1 on timeout
+     */
+    private long startAndMeasure(String mode, String warmup, String name, LatencyHistogram latencies, LongAdder errors)
+            throws Exception {
+        File target = new File("target").getAbsoluteFile();
+        File fastStartup = new File(target, "fast-startup");
+        String plainJar = "pastries-backend-1.0.0-fast-startup.jar";
+        
+        List<String> command = new ArrayList<>(List.of(javaExecutable()));
+        File directory;
+        switch (mode) {
+            case "jar" -> {
+                directory = target;
+                command.addAll(List.of("-jar", "pastries-backend-1.0.0.jar"));
+            }
+            case "exploded" -> {
+                directory = fastStartup;
+                command.addAll(List.of("-jar", plainJar));
+            }
+            case "aot" -> {
+                directory = fastStartup;
+                command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", plainJar));
+            }
+            case "aot-cds" -> {
+                directory = fastStartup;
+                command.addAll(List.of("-XX:SharedArchiveFile=application.jsa",
+                        "-Dspring.aot.enabled=true", "-jar", plainJar));
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        command.add("--server.port=" + config.get("port"));
+        command.add("--warmup.enabled=" + warmup);
+        command.addAll(applicationArgs);
+        
+        File log = new File(target, "startup-logs/" + name + ".log");
+        log.getParentFile().mkdirs();
+        String baseUrl = "http://localhost:" + config.get("port");
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + config.get("readiness")))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(config.get("timeout")));
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                try {
+                    if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long ready = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        drive(baseUrl, latencies, errors);
+                        return ready;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+    
+    private void drive(String baseUrl, LatencyHistogram latencies, LongAdder errors) throws InterruptedException {
+        int seconds = Integer.parseInt(config.get("load"));
+        if (seconds <= 0) {
+            return;
+        }
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : config.get("paths").split(",")) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path.trim()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build());
+        }
+        int concurrency = Integer.parseInt(config.get("concurrency"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            int offset = w;
+            workers.execute(() -> {
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        int status = client.send(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                        if (status >= 400) {
+                            errors.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    latencies.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin));
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+    
+    private static String javaExecutable() {
+        return new File(System.getProperty("java.home"), "bin/java").getPath();
+    }
+}
@@ -2,8 +2,10 @@ package com.ammas.pastries;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PastriesApplication {
     public static void main(String[] args) {
         SpringApplication.run(PastriesApplication.class, args);
@@ -0,0 +1,96 @@
+package com.ammas.pastries.cache;
+
+import com.ammas.pastries.dto.CacheRegionStatsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit ratios per second-level cache region, from Hibernate statistics
+ * (spring.jpa.properties.hibernate.generate_statistics must be on).
+ */
+@Component
+public class CacheRegionMonitor implements MeterBinder {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CacheManager hibernateCacheManager;
+    
+    public List<CacheRegionStatsDTO> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatsDTO> result = new ArrayList<>();
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            result.add(toDto(region, "entity", statistics.getDomainDataRegionStatistics(region)));
+        }
+        for (String region : CacheRegions.QUERY_REGIONS) {
+            result.add(toDto(region, "query", statistics.getQueryRegionStatistics(region)));
+        }
+        return result;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            bindRegion(registry, region, "entity",
+                    statistics -> statistics.getDomainDataRegionStatistics(region));
+        }
+        for (String region : CacheRegions.QUERY_REGIONS) {
+            bindRegion(registry, region, "query",
+                    statistics -> statistics.getQueryRegionStatistics(region));
+        }
+    }
+    
+    private void bindRegion(MeterRegistry registry, String region, String type,
+                            Function<Statistics, CacheRegionStatistics> lookup) {
+        FunctionCounter.builder("cache.region.gets", this, monitor -> monitor.count(lookup, CacheRegionStatistics::getHitCount))
+                .tags("region", region, "type", type, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.region.gets", this, monitor -> monitor.count(lookup, CacheRegionStatistics::getMissCount))
+                .tags("region", region, "type", type, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.region.puts", this, monitor -> monitor.count(lookup, CacheRegionStatistics::getPutCount))
+                .tags("region", region, "type", type).register(registry);
+        Gauge.builder("cache.region.size", this, monitor -> monitor.sizeOf(region))
+                .tags("region", region, "type", type).register(registry);
+    }
+    
+    private long count(Function<Statistics, CacheRegionStatistics> lookup,
+                       ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics stats = lookup.apply(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+        return stats != null ? counter.applyAsLong(stats) : 0;
+    }
+    
+    private CacheRegionStatsDTO toDto(String region, String type, CacheRegionStatistics stats) {
+        long hits = stats != null ? stats.getHitCount() : 0;
+        long misses = stats != null ? stats.getMissCount() : 0;
+        return CacheRegionStatsDTO.builder()
+                .region(region)
+                .type(type)
+                .hits(hits)
+                .misses(misses)
+                .puts(stats != null ? stats.getPutCount() : 0)
+                .hitRatio(hits + misses > 0 ? (double) hits / (hits + misses) : 0.0)
+                .size(sizeOf(region))
+                .build();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private long sizeOf(String region) {
+        Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        return cache == null ? 0 : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
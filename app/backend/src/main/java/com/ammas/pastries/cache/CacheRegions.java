@@ -0,0 +1,25 @@
+package com.ammas.pastries.cache;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions. Each region's bounds come from
+ * cache.regions.&lt;region&gt;.max-size and .ttl-seconds, see CacheConfig.
+ */
+public final class CacheRegions {
+    
+    public static final String PRODUCT = "product";
+    public static final String USER = "user";
+    public static final String USER_BY_EMAIL = "user-by-email";
+    public static final String CATALOG_QUERIES = "catalog-queries";
+    
+    // Hibernate's own regions once the query cache is on
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+    
+    public static final List<String> ENTITY_REGIONS = List.of(PRODUCT, USER);
+    public static final List<String> QUERY_REGIONS = List.of(USER_BY_EMAIL, CATALOG_QUERIES, DEFAULT_QUERY_RESULTS);
+    
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,175 @@
+package com.ammas.pastries.cache;
+
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.event.ProductRatingsRefreshedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the second-level caches of several nodes coherent without a broker.
+ *
+ * Writers mark a coherence region changed after commit; each poll first bumps the
+ * cache_versions rows this node changed, then reads all rows and evicts the regions whose
+ * version moved since the last poll. A change is therefore visible on every node within
+ * about two poll intervals. Product changes (stock, ratings) only evict the products
+ * updated since shortly before the bump this node saw last: every change is published
+ * within a poll interval of its commit, so any change behind a newer version is at most
+ * that much older than the previous bump. Catalog changes by admins evict all product data.
+ */
+@Slf4j
+@Service
+public class CacheVersionService {
+    
+    public static final String CATALOG = "catalog";
+    public static final String PRODUCTS = "products";
+    public static final String USERS = "users";
+    
+    // updated_at comes from both the JVM and database clocks, bumped_at from the database
+    private static final long CLOCK_SKEW_MARGIN_MS = 2_000;
+    
+    private static final String BUMP_SQL =
+            "INSERT INTO cache_versions (region, version, bumped_at) VALUES (?, 1, CURRENT_TIMESTAMP(3)) "
+                    + "ON DUPLICATE KEY UPDATE version = version + 1, bumped_at = CURRENT_TIMESTAMP(3)";
+    
+    private record Version(long number, Timestamp bumpedAt) {
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Value("${cache.coherence.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${cache.coherence.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+    
+    private final Set<String> changedRegions = ConcurrentHashMap.newKeySet();
+    private final Map<String, Version> seenVersions = new HashMap<>();
+    private boolean polled;
+    
+    public void markChanged(String region) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedRegions.add(region);
+                }
+            });
+        } else {
+            changedRegions.add(region);
+        }
+    }
+    
+    @EventListener
+    public void onRatingsRefreshed(ProductRatingsRefreshedEvent event) {
+        markChanged(PRODUCTS);
+    }
+    
+    @Scheduled(fixedDelayString = "${cache.coherence.poll-interval-ms:2000}")
+    public void synchronize() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            publishLocalChanges();
+            applyRemoteChanges();
+        } catch (DataAccessException e) {
+            log.warn("Cache version poll failed: {}", e.getMessage());
+        }
+    }
+    
+    private void publishLocalChanges() {
+        for (String region : changedRegions) {
+            changedRegions.remove(region);
+            try {
+                Version version = transactionTemplate.execute(status -> {
+                    jdbcTemplate.update(BUMP_SQL, region);
+                    return jdbcTemplate.queryForObject(
+                            "SELECT version, bumped_at FROM cache_versions WHERE region = ?",
+                            (rs, rowNum) -> new Version(rs.getLong("version"), rs.getTimestamp("bumped_at")),
+                            region);
+                });
+                // Our own change is already in our cache; only skip eviction if no other node bumped too
+                Version seen = seenVersions.get(region);
+                if (seen != null && version != null && version.number() == seen.number() + 1) {
+                    seenVersions.put(region, version);
+                }
+            } catch (DataAccessException e) {
+                changedRegions.add(region);
+                throw e;
+            }
+        }
+    }
+    
+    private void applyRemoteChanges() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT region, version, bumped_at FROM cache_versions");
+        
+        for (Map<String, Object> row : rows) {
+            String region = (String) row.get("region");
+            Version version = new Version(((Number) row.get("version")).longValue(), (Timestamp) row.get("bumped_at"));
+            Version seen = seenVersions.put(region, version);
+            if (polled && (seen == null || seen.number() != version.number())) {
+                evict(region, seen);
+            }
+        }
+        polled = true;
+    }
+    
+    private void evict(String region, Version seen) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (region) {
+            case CATALOG -> {
+                cache.evictEntityData(Product.class);
+                cache.evictQueryRegion(CacheRegions.CATALOG_QUERIES);
+                cache.evictDefaultQueryRegion();
+            }
+            case PRODUCTS -> {
+                if (seen == null) {
+                    cache.evictEntityData(Product.class);
+                    break;
+                }
+                // The publish delay covers changes made shortly before the bump we saw but published after it
+                long since = seen.bumpedAt().getTime() - pollIntervalMs - CLOCK_SKEW_MARGIN_MS;
+                List<Long> changed = jdbcTemplate.queryForList(
+                        "SELECT id FROM products WHERE updated_at >= ?", Long.class, new Timestamp(since));
+                changed.forEach(id -> cache.evictEntityData(Product.class, id));
+            }
+            case USERS -> {
+                cache.evictEntityData(User.class);
+                cache.evictQueryRegion(CacheRegions.USER_BY_EMAIL);
+            }
+            default -> log.debug("Ignoring unknown cache version region {}", region);
+        }
+        log.debug("Evicted cache region {} after a change on another node", region);
+    }
+}
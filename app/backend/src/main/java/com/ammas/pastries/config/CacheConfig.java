@@ -0,0 +1,65 @@
+package com.ammas.pastries.config;
+
+import com.ammas.pastries.cache.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Second-level cache regions on Caffeine through JCache. Every region is created here with
+ * its own size bound and TTL, and Hibernate is told to fail on any region not declared.
+ * The update-timestamps region must outlive every cached query, so it is never bounded.
+ */
+@Configuration
+public class CacheConfig {
+    
+    private static final AtomicInteger MANAGER_IDS = new AtomicInteger();
+    
+    @Autowired
+    private Environment environment;
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // A manager of its own, so a second context in the same JVM (as in tests) can create its regions
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-" + MANAGER_IDS.incrementAndGet()), provider.getDefaultClassLoader());
+        createRegion(cacheManager, CacheRegions.PRODUCT, 10_000, 600);
+        createRegion(cacheManager, CacheRegions.USER, 10_000, 600);
+        createRegion(cacheManager, CacheRegions.USER_BY_EMAIL, 10_000, 600);
+        createRegion(cacheManager, CacheRegions.CATALOG_QUERIES, 100, 300);
+        createRegion(cacheManager, CacheRegions.DEFAULT_QUERY_RESULTS, 1_000, 300);
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+    
+    private void createRegion(CacheManager cacheManager, String region, long maxSize, long ttlSeconds) {
+        String prefix = "cache.regions." + region + ".";
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(
+                environment.getProperty(prefix + "max-size", Long.class, maxSize)));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(
+                environment.getProperty(prefix + "ttl-seconds", Long.class, ttlSeconds))));
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ammas.pastries.config;
+
+import com.ammas.pastries.datasource.DataSourceRoute;
+import com.ammas.pastries.datasource.ReplicaAwareJpaDialect;
+import com.ammas.pastries.datasource.ReplicaRouter;
+import com.ammas.pastries.datasource.RoutingDataSource;
+import com.ammas.pastries.resilience.ReportingBulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storefront and reporting bulkheads: each gets its own Hikari pool behind a routing
+ * DataSource; reporting's executor is owned by {@link ReportingBulkhead}. With
+ * replica.enabled a third pool serves read-only storefront transactions, see
+ * {@link ReplicaRouter}. The extra pools inherit the spring.datasource connection settings
+ * unless their hikari.* properties override them (e.g. jdbc-url).
+ */
+@Configuration
+public class DataSourceConfig {
+    
+    // Migrations need the read-write pool, not whatever the router would pick
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource storefrontDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("storefront");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("bulkhead.reporting.datasource.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("reporting");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("storefrontDataSource") DataSource storefrontDataSource,
+                                 @Qualifier("reportingDataSource") DataSource reportingDataSource,
+                                 @Qualifier("replicaDataSource") Optional<DataSource> replicaDataSource,
+                                 ReplicaRouter replicaRouter) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.STOREFRONT, storefrontDataSource);
+        targets.put(DataSourceRoute.REPORTING, reportingDataSource);
+        replicaDataSource.ifPresent(replica -> targets.put(DataSourceRoute.REPLICA, replica));
+        
+        RoutingDataSource dataSource = new RoutingDataSource(replicaRouter);
+        dataSource.setTargetDataSources(targets);
+        dataSource.setDefaultTargetDataSource(storefrontDataSource);
+        dataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(dataSource);
+    }
+    
+    // Set before the factory initializes, so the vendor adapter's default dialect is not applied
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect(ObjectProvider<ReplicaRouter> replicaRouter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factory) {
+                    factory.setJpaDialect(new ReplicaAwareJpaDialect(replicaRouter));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.ammas.pastries.config;
+
+import com.ammas.pastries.metrics.SqlMetricsSessionListener;
+import com.ammas.pastries.metrics.SqlStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Times every JDBC execution and counts every prepared statement into the current request's SQL stats
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer sqlMetricsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlMetricsSessionListener.class.getName());
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementInspector.class.getName());
+        };
+    }
+}
@@ -1,18 +1,33 @@
 package com.ammas.pastries.controller;
 
+import com.ammas.pastries.cache.CacheRegionMonitor;
+import com.ammas.pastries.datasource.ReplicaRouter;
 import com.ammas.pastries.dto.*;
+import com.ammas.pastries.profiling.FileSender;
+import com.ammas.pastries.profiling.FlightRecorderService;
+import com.ammas.pastries.resilience.BulkheadMonitor;
+import com.ammas.pastries.resilience.ConcurrencyLimitRegistry;
+import com.ammas.pastries.resilience.ReportingBulkhead;
+import com.ammas.pastries.security.TokenRevocationService;
+import com.ammas.pastries.service.CustomerAnalyticsService;
 import com.ammas.pastries.service.OrderService;
 import com.ammas.pastries.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -28,6 +43,30 @@ public class AdminController {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private CustomerAnalyticsService customerAnalyticsService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private ConcurrencyLimitRegistry concurrencyLimitRegistry;
+    
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+    
+    @Autowired
+    private BulkheadMonitor bulkheadMonitor;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    @Autowired
+    private CacheRegionMonitor cacheRegionMonitor;
+    
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+    
     // Product Management
     @PostMapping("/products")
     @Operation(summary = "Create product", description = "Create a new product (Admin only)")
@@ -51,8 +90,8 @@ public class AdminController {
     // Order Management
     @GetMapping("/orders")
     @Operation(summary = "Get all orders", description = "Get all orders for admin dashboard")
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public CompletableFuture<ResponseEntity<List<OrderDTO>>> getAllOrders() {
+        return reportingBulkhead.submit(() -> ResponseEntity.ok(orderService.getAllOrders()));
     }
     
     @PutMapping("/orders/{orderId}/status")
@@ -64,7 +103,97 @@ public class AdminController {
     // Dashboard Stats
     @GetMapping("/dashboard/stats")
     @Operation(summary = "Get dashboard statistics", description = "Get sales analytics and statistics")
-    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        return ResponseEntity.ok(orderService.getDashboardStats());
+    public CompletableFuture<ResponseEntity<DashboardStatsDTO>> getDashboardStats() {
+        return reportingBulkhead.submit(() -> ResponseEntity.ok(orderService.getDashboardStats()));
+    }
+    
+    // Customer Analytics
+    @GetMapping("/analytics/customers")
+    @Operation(summary = "Get customer analytics", description = "Approximate distinct and repeat customers for a date range")
+    public CompletableFuture<ResponseEntity<CustomerAnalyticsDTO>> getCustomerAnalytics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportingBulkhead.submit(() -> ResponseEntity.ok(customerAnalyticsService.getCustomerAnalytics(from, to)));
+    }
+    
+    @PostMapping("/analytics/customers/rebuild")
+    @Operation(summary = "Rebuild customer sketches", description = "Recompute daily customer sketches from stored orders, at most a year at a time")
+    public CompletableFuture<ResponseEntity<Void>> rebuildCustomerSketches(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportingBulkhead.submit(() -> {
+            customerAnalyticsService.rebuild(from, to);
+            return ResponseEntity.ok().<Void>build();
+        });
+    }
+    
+    // User Management
+    @PostMapping("/users/{userId}/revoke-tokens")
+    @Operation(summary = "Revoke user tokens", description = "Invalidate all tokens issued to a user so far, e.g. after a role change")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "admin") String reason) {
+        tokenRevocationService.revokeUser(userId, reason);
+        return ResponseEntity.ok().build();
+    }
+    
+    // Load Shedding
+    @GetMapping("/concurrency-limits")
+    @Operation(summary = "Get concurrency limits", description = "Current adaptive limit, in-flight requests and rejections per endpoint group")
+    public ResponseEntity<List<ConcurrencyLimitDTO>> getConcurrencyLimits() {
+        List<ConcurrencyLimitDTO> limits = concurrencyLimitRegistry.getLimits().stream()
+                .map(ConcurrencyLimitDTO::fromLimit)
+                .toList();
+        return ResponseEntity.ok(limits);
+    }
+    
+    @GetMapping("/bulkheads")
+    @Operation(summary = "Get bulkhead saturation", description = "Connection pool and executor usage of the storefront and reporting bulkheads")
+    public ResponseEntity<List<BulkheadStatsDTO>> getBulkheads() {
+        return ResponseEntity.ok(bulkheadMonitor.getStats());
+    }
+    
+    @GetMapping("/replica")
+    @Operation(summary = "Get replica status", description = "Whether read-only queries are currently routed to the replica, and its lag")
+    public ResponseEntity<ReplicaStatusDTO> getReplicaStatus() {
+        return ResponseEntity.ok(replicaRouter.getStatus());
+    }
+    
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Get cache statistics", description = "Hits, misses and hit ratio per second-level cache region")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheRegionMonitor.getStats());
+    }
+    
+    // Profiling
+    @PostMapping("/profiling/recordings")
+    @Operation(summary = "Start a flight recording", description = "Record the live JVM for the given number of seconds with tuned JFR settings")
+    public ResponseEntity<RecordingDTO> startRecording(@RequestParam(defaultValue = "60") long durationSeconds) {
+        return ResponseEntity.ok(flightRecorderService.start(durationSeconds));
+    }
+    
+    @GetMapping("/profiling/recordings")
+    @Operation(summary = "List flight recordings", description = "Running and retained recordings with their state and size")
+    public ResponseEntity<List<RecordingDTO>> getRecordings() {
+        return ResponseEntity.ok(flightRecorderService.list());
+    }
+    
+    @GetMapping("/profiling/recordings/{id}")
+    @Operation(summary = "Get flight recording status")
+    public ResponseEntity<RecordingDTO> getRecording(@PathVariable Long id) {
+        return ResponseEntity.ok(flightRecorderService.get(id));
+    }
+    
+    @GetMapping("/profiling/recordings/{id}/file")
+    @Operation(summary = "Download flight recording", description = "The finished .jfr file, for JDK Mission Control or the jfr tool")
+    public void downloadRecording(@PathVariable Long id, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        FileSender.send(flightRecorderService.file(id), "application/octet-stream", request, response);
+    }
+    
+    @GetMapping("/profiling/recordings/{id}/summary")
+    @Operation(summary = "Summarize flight recording", description = "Top allocating frames, hottest methods and most contended monitors")
+    public CompletableFuture<ResponseEntity<ProfileSummaryDTO>> getRecordingSummary(
+            @PathVariable Long id, @RequestParam(defaultValue = "20") int limit) {
+        return reportingBulkhead.submit(() -> ResponseEntity.ok(flightRecorderService.summarize(id, limit)));
     }
 }
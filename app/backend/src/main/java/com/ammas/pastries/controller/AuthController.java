@@ -25,7 +25,7 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticate user and return JWT token")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        log.info("Login attempt for email: {}", loginRequest.getEmail());
+        log.debug("Login attempt for email: {}", loginRequest.getEmail());
         return ResponseEntity.ok(authService.authenticateUser(loginRequest));
     }
     
@@ -1,6 +1,7 @@
 package com.ammas.pastries.controller;
 
 import com.ammas.pastries.dto.ReviewDTO;
+import com.ammas.pastries.dto.ReviewPageDTO;
 import com.ammas.pastries.dto.ReviewRequest;
 import com.ammas.pastries.security.UserDetailsImpl;
 import com.ammas.pastries.service.ReviewService;
@@ -14,8 +15,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/reviews")
 @Tag(name = "Reviews", description = "Product review APIs")
@@ -26,9 +25,13 @@ public class ReviewController {
     private ReviewService reviewService;
     
     @GetMapping("/product/{productId}")
-    @Operation(summary = "Get product reviews", description = "Get all reviews for a specific product")
-    public ResponseEntity<List<ReviewDTO>> getProductReviews(@PathVariable Long productId) {
-        return ResponseEntity.ok(reviewService.getProductReviews(productId));
+    @Operation(summary = "Get product reviews", description = "Get a cursor-paginated page of reviews for a product, sorted by newest, highest or lowest rating")
+    public ResponseEntity<ReviewPageDTO> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(reviewService.getProductReviews(productId, sort, cursor, size));
     }
     
     @PostMapping
@@ -0,0 +1,7 @@
+package com.ammas.pastries.datasource;
+
+public enum DataSourceRoute {
+    STOREFRONT,
+    REPORTING,
+    REPLICA
+}
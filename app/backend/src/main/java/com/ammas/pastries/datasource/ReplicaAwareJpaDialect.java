@@ -0,0 +1,58 @@
+package com.ammas.pastries.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Decides once, when a read-only transaction begins, whether it runs on the replica, so
+ * the connection routing and the cache mode agree. A transaction on the replica reads the
+ * second-level and query caches but never puts into them: a replica that is behind would
+ * otherwise refill regions evicted by a write with stale stock and prices until the TTL.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    
+    private final ObjectProvider<ReplicaRouter> replicaRouter;
+    
+    public ReplicaAwareJpaDialect(ObjectProvider<ReplicaRouter> replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+    
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        ReplicaRouter router = replicaRouter.getObject();
+        boolean onReplica = definition.isReadOnly() && router.canServe();
+        // With open-in-view the session outlives the transaction, so its mode is restored after
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        if (onReplica) {
+            session.setCacheMode(CacheMode.GET);
+        }
+        return new ReplicaTransactionData(transactionData, router.assignTransaction(onReplica),
+                session, previousCacheMode);
+    }
+    
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransactionData data) {
+            replicaRouter.getObject().restoreTransaction(data.previousOnReplica());
+            data.session().setCacheMode(data.previousCacheMode());
+            super.cleanupTransaction(data.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+    
+    private record ReplicaTransactionData(Object delegate, Boolean previousOnReplica,
+                                          Session session, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.ammas.pastries.datasource;
+
+import com.ammas.pastries.dto.ReplicaStatusDTO;
+import com.ammas.pastries.security.UserDetailsImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Decides whether read-only work may use the replica.
+ *
+ * Every health check the primary stamps replica_heartbeat with the current time and the
+ * replica's copy of that stamp tells how far replication has caught up. The replica is
+ * used while its lag is within replica.max-lag-ms, and not for a user whose last order or
+ * review committed after the replica's stamp, so they always read their own writes.
+ *
+ * With replica.max-lag-ms=0 the heartbeat is skipped, only reachability is checked and a
+ * user sticks to the primary for replica.sticky-window-ms after writing. That mode also
+ * works against two independent local databases.
+ */
+@Slf4j
+@Component
+public class ReplicaRouter implements MeterBinder {
+    
+    private static final String HEARTBEAT_UPSERT =
+            "INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?) "
+                    + "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)";
+    
+    @Autowired
+    @Qualifier("storefrontDataSource")
+    private DataSource primaryDataSource;
+    
+    @Autowired(required = false)
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    
+    @Value("${replica.max-lag-ms:5000}")
+    private long maxLagMillis;
+    
+    @Value("${replica.sticky-window-ms:5000}")
+    private long stickyWindowMillis;
+    
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    
+    // userId -> commit time of that user's latest write
+    private Cache<Long, Long> recentWrites;
+    
+    // Whether the current read-only transaction was assigned the replica when it began
+    private final ThreadLocal<Boolean> transactionOnReplica = new ThreadLocal<>();
+    
+    private volatile boolean healthy;
+    // Writes committed before this instant are visible on the replica
+    private volatile long caughtUpTo;
+    private volatile long lagMillis = -1;
+    private volatile String lastError;
+    
+    @PostConstruct
+    public void init() {
+        recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(Math.max(maxLagMillis, stickyWindowMillis)))
+                .maximumSize(100_000)
+                .build();
+        if (replicaDataSource != null) {
+            primary = new JdbcTemplate(primaryDataSource);
+            replica = new JdbcTemplate(replicaDataSource);
+            replica.setQueryTimeout(2);
+        }
+    }
+    
+    public boolean canServe() {
+        if (!healthy) {
+            return false;
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return true;
+        }
+        Long writtenAt = recentWrites.getIfPresent(userId);
+        return writtenAt == null || writtenAt < caughtUpTo;
+    }
+    
+    /**
+     * Routing decision for the current read-only transaction: the one taken when it began,
+     * see {@link ReplicaAwareJpaDialect}, or {@link #canServe()} outside such a transaction.
+     */
+    public boolean servesCurrentTransaction() {
+        Boolean onReplica = transactionOnReplica.get();
+        return onReplica != null ? onReplica : canServe();
+    }
+    
+    Boolean assignTransaction(boolean onReplica) {
+        Boolean previous = transactionOnReplica.get();
+        transactionOnReplica.set(onReplica);
+        return previous;
+    }
+    
+    void restoreTransaction(Boolean previous) {
+        if (previous == null) {
+            transactionOnReplica.remove();
+        } else {
+            transactionOnReplica.set(previous);
+        }
+    }
+    
+    public void recordWrite(Long userId) {
+        if (replica == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(userId, System.currentTimeMillis());
+                }
+            });
+        } else {
+            recentWrites.put(userId, System.currentTimeMillis());
+        }
+    }
+    
+    public void markUnhealthy(Exception e) {
+        lastError = e.getMessage();
+        if (healthy) {
+            healthy = false;
+            log.warn("Replica unavailable, routing reads to the primary: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${replica.health-check-interval-ms:1000}")
+    public void checkHealth() {
+        if (replica == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            if (maxLagMillis > 0) {
+                primary.update(HEARTBEAT_UPSERT, now);
+                Long beat = replica.queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+                caughtUpTo = beat;
+                lagMillis = Math.max(0, now - beat);
+                if (lagMillis > maxLagMillis) {
+                    markUnhealthy(new IllegalStateException("Replica lag " + lagMillis + " ms exceeds " + maxLagMillis + " ms"));
+                    return;
+                }
+            } else {
+                replica.queryForObject("SELECT 1", Integer.class);
+                caughtUpTo = now - stickyWindowMillis;
+            }
+        } catch (DataAccessException e) {
+            markUnhealthy(e);
+            return;
+        }
+        
+        lastError = null;
+        if (!healthy) {
+            healthy = true;
+            log.info("Replica available, routing read-only transactions to it");
+        }
+    }
+    
+    public ReplicaStatusDTO getStatus() {
+        return ReplicaStatusDTO.builder()
+                .enabled(replica != null)
+                .healthy(healthy)
+                .lagMillis(lagMillis >= 0 ? lagMillis : null)
+                .stickyUsers(recentWrites.estimatedSize())
+                .lastError(lastError)
+                .build();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("replica.healthy", this, router -> router.healthy ? 1 : 0).register(registry);
+        Gauge.builder("replica.lag", this, router -> router.lagMillis >= 0 ? router.lagMillis : Double.NaN)
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("replica.sticky.users", this, router -> router.recentWrites.estimatedSize()).register(registry);
+    }
+    
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
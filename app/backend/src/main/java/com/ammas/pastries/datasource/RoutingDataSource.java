@@ -0,0 +1,52 @@
+package com.ammas.pastries.datasource;
+
+import com.ammas.pastries.resilience.Bulkhead;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Picks the pool for each new connection: reporting threads use their own bulkhead pool,
+ * read-only transactions use the replica while {@link ReplicaRouter} allows it, and
+ * everything else goes to the primary storefront pool.
+ *
+ * The read-only flag is only set once a transaction has begun, so this must sit behind a
+ * LazyConnectionDataSourceProxy that defers fetching until the first statement.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final ReplicaRouter replicaRouter;
+    
+    public RoutingDataSource(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (Bulkhead.current() == Bulkhead.REPORTING) {
+            return DataSourceRoute.REPORTING;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaRouter.servesCurrentTransaction()) {
+            return DataSourceRoute.REPLICA;
+        }
+        return DataSourceRoute.STOREFRONT;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource replica = getResolvedDataSources().get(DataSourceRoute.REPLICA);
+        if (replica == null || determineCurrentLookupKey() != DataSourceRoute.REPLICA) {
+            return super.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            // Serve the read from the primary rather than failing it
+            replicaRouter.markUnhealthy(e);
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+}
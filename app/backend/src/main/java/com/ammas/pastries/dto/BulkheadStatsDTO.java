@@ -0,0 +1,30 @@
+package com.ammas.pastries.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkheadStatsDTO {
+    private String bulkhead;
+    
+    // Connection pool
+    private Integer maxConnections;
+    private Integer activeConnections;
+    private Integer idleConnections;
+    private Integer threadsAwaitingConnection;
+    
+    // Executor (only for bulkheads with their own threads)
+    private Integer maxThreads;
+    private Integer activeThreads;
+    private Integer queuedTasks;
+    private Integer queueRemainingCapacity;
+    private Long completedTasks;
+    private Long rejectedTasks;
+}
@@ -0,0 +1,20 @@
+package com.ammas.pastries.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private String type;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Double hitRatio;
+    private Long size;
+}
@@ -0,0 +1,29 @@
+package com.ammas.pastries.dto;
+
+import com.ammas.pastries.resilience.GradientConcurrencyLimit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitDTO {
+    private String group;
+    private Integer limit;
+    private Integer inFlight;
+    private Long rejected;
+    private Long latencyBaselineMicros;
+    
+    public static ConcurrencyLimitDTO fromLimit(GradientConcurrencyLimit limit) {
+        return ConcurrencyLimitDTO.builder()
+                .group(limit.getName())
+                .limit(limit.getLimit())
+                .inFlight(limit.getInFlight())
+                .rejected(limit.getRejected())
+                .latencyBaselineMicros(limit.getLatencyBaselineMicros())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.ammas.pastries.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAnalyticsDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private Long distinctCustomers;
+    private Long repeatCustomers;
+    private Double relativeStandardError;
+}
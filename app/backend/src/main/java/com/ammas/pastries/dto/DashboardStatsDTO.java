@@ -20,4 +20,7 @@ public class DashboardStatsDTO {
     private Long pendingOrders;
     private Map<String, Long> ordersByStatus;
     private Map<String, BigDecimal> salesByDate;
+    private Long activeCustomersToday;
+    private Long activeCustomers7Days;
+    private Long activeCustomers30Days;
 }
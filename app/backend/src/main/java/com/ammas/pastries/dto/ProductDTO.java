@@ -1,6 +1,7 @@
 package com.ammas.pastries.dto;
 
 import com.ammas.pastries.entity.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -26,6 +28,10 @@ public class ProductDTO {
     private Boolean featured;
     private LocalDateTime createdAt;
     
+    // Star rating -> review count, only populated on the product detail response
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Integer, Integer> ratingHistogram;
+    
     public static ProductDTO fromEntity(Product product) {
         return ProductDTO.builder()
                 .id(product.getId())
@@ -0,0 +1,38 @@
+package com.ammas.pastries.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileSummaryDTO {
+    private Long recordingId;
+    private Long executionSamples;
+    private Long allocationSamples;
+    private Long monitorEnterEvents;
+    
+    // Ranked by sampled bytes allocated in the top frame
+    private List<HotSpot> topAllocatingFrames;
+    
+    // Ranked by execution samples with the method on top of the stack
+    private List<HotSpot> hottestMethods;
+    
+    // Ranked by total time threads spent blocked entering a monitor of the class
+    private List<HotSpot> mostContendedMonitors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HotSpot {
+        private String name;
+        private long count;
+        // Bytes for allocations, samples for methods, milliseconds blocked for monitors
+        private long total;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ammas.pastries.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecordingDTO {
+    private Long id;
+    private String state;
+    private Instant startedAt;
+    private Long durationSeconds;
+    private Long sizeBytes;
+}
@@ -0,0 +1,20 @@
+package com.ammas.pastries.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReplicaStatusDTO {
+    private Boolean enabled;
+    private Boolean healthy;
+    private Long lagMillis;
+    private Long stickyUsers;
+    private String lastError;
+}
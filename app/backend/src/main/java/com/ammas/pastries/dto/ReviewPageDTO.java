@@ -0,0 +1,20 @@
+package com.ammas.pastries.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageDTO {
+    private List<ReviewDTO> content;
+    private String sort;
+    private Integer size;
+    private String nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.ammas.pastries.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per coherence region; bumped by the node that changed it, polled by every node
+@Entity
+@Table(name = "cache_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheVersion {
+    @Id
+    @Column(length = 50)
+    private String region;
+    
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,28 @@
+package com.ammas.pastries.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "customer_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSketch {
+    @Id
+    @Column(name = "sketch_date")
+    private LocalDate sketchDate;
+    
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] registers;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -1,10 +1,14 @@
 package com.ammas.pastries.entity;
 
+import com.ammas.pastries.cache.CacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -12,12 +16,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT)
+// Updates write only changed columns, so a rating refresh of a cached product never rewrites stock
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "products_id")
+    @TableGenerator(name = "products_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "products", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 200)
@@ -44,6 +53,12 @@ public class Product {
     @Column(name = "review_count")
     private Integer reviewCount = 0;
     
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+    
+    @Embedded
+    private RatingHistogram ratingHistogram = new RatingHistogram();
+    
     @Column(nullable = false)
     private Boolean featured = false;
     
@@ -0,0 +1,50 @@
+package com.ammas.pastries.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingHistogram {
+    @Column(name = "rating_1_count", nullable = false)
+    private Integer oneStar = 0;
+    
+    @Column(name = "rating_2_count", nullable = false)
+    private Integer twoStar = 0;
+    
+    @Column(name = "rating_3_count", nullable = false)
+    private Integer threeStar = 0;
+    
+    @Column(name = "rating_4_count", nullable = false)
+    private Integer fourStar = 0;
+    
+    @Column(name = "rating_5_count", nullable = false)
+    private Integer fiveStar = 0;
+    
+    public int get(int rating) {
+        return switch (rating) {
+            case 1 -> oneStar;
+            case 2 -> twoStar;
+            case 3 -> threeStar;
+            case 4 -> fourStar;
+            case 5 -> fiveStar;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        };
+    }
+    
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> buckets = new LinkedHashMap<>();
+        for (int rating = 5; rating >= 1; rating--) {
+            buckets.put(rating, get(rating));
+        }
+        return buckets;
+    }
+}
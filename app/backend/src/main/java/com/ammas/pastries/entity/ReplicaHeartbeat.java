@@ -0,0 +1,20 @@
+package com.ammas.pastries.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Single row written on the primary and read back from the replica to measure lag
+@Entity
+@Table(name = "replica_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+    @Id
+    private Integer id;
+    
+    @Column(name = "beat_millis", nullable = false)
+    private Long beatMillis;
+}
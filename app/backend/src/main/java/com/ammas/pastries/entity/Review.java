@@ -11,13 +11,19 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "reviews", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "product_id"})
+}, indexes = {
+    @Index(name = "idx_product_created", columnList = "product_id, created_at, id"),
+    @Index(name = "idx_product_rating_created", columnList = "product_id, rating, created_at, id"),
+    @Index(name = "idx_product_rating_asc_created", columnList = "product_id, rating ASC, created_at DESC, id DESC")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reviews_id")
+    @TableGenerator(name = "reviews_id", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "reviews", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
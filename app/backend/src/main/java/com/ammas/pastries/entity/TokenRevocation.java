@@ -0,0 +1,28 @@
+package com.ammas.pastries.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_revoked_at", columnList = "revoked_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    // Tokens issued at or before this instant are rejected
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    @Column(length = 100)
+    private String reason;
+}
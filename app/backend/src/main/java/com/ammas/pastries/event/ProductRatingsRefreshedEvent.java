@@ -0,0 +1,10 @@
+package com.ammas.pastries.event;
+
+import java.util.Set;
+
+/**
+ * Published after the write-behind worker has rewritten the rating aggregates of a
+ * batch of products, so anything caching those products can refresh them.
+ */
+public record ProductRatingsRefreshedEvent(Set<Long> productIds) {
+}
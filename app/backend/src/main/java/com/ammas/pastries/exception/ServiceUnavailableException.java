@@ -0,0 +1,19 @@
+package com.ammas.pastries.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later.
+ * Mapped to 503 with a Retry-After header by {@link GlobalExceptionHandler}.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    private final int retryAfterSeconds;
+    
+    public ServiceUnavailableException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
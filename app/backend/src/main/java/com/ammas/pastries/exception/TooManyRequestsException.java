@@ -0,0 +1,19 @@
+package com.ammas.pastries.exception;
+
+/**
+ * Thrown when a caller has exhausted its rate limit.
+ * Mapped to 429 with a Retry-After header by {@link GlobalExceptionHandler}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
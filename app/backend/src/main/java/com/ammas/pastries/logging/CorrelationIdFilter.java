@@ -0,0 +1,73 @@
+package com.ammas.pastries.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives every request a correlation id, taken from a well-formed X-Request-Id header or
+ * generated, and puts it in the logging MDC as requestId for the request's lifetime (async
+ * dispatches included). The id is echoed in the response so clients can quote it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_KEY = "requestId";
+    
+    private static final String ATTRIBUTE = CorrelationIdFilter.class.getName();
+    private static final int MAX_LENGTH = 64;
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(ATTRIBUTE);
+        if (requestId == null) {
+            requestId = accept(request.getHeader(HEADER));
+            request.setAttribute(ATTRIBUTE, requestId);
+            response.setHeader(HEADER, requestId);
+        }
+        
+        MDC.put(MDC_KEY, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+    
+    // Client ids end up in every log line, so only short ids of safe characters are kept
+    private static String accept(String header) {
+        if (header == null || header.isEmpty() || header.length() > MAX_LENGTH) {
+            return generate();
+        }
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return generate();
+            }
+        }
+        return header;
+    }
+    
+    // Uniqueness within the log retention window is enough; avoids SecureRandom behind UUID
+    private static String generate() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+}
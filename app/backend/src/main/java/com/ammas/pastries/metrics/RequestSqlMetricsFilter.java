@@ -0,0 +1,127 @@
+package com.ammas.pastries.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records SQL statements and JDBC time per request, tagged like http.server.requests
+ * by method and URI template, and warns when one request prepares the same statement
+ * more than sql.inspection.repeat-threshold times.
+ *
+ * With metrics.server-timing.enabled the response is buffered so a Server-Timing header
+ * (db, serialize, total) can be added once the body is written. Async requests are
+ * completed on their final async dispatch. File downloads are never buffered.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 15)
+@Slf4j
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+    
+    private static final String UNBUFFERED_PREFIX = "/api/admin/profiling/";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${metrics.server-timing.enabled:false}")
+    private boolean serverTiming;
+    
+    @Value("${sql.inspection.repeat-threshold:10}")
+    private int repeatThreshold;
+    
+    private final Map<String, RouteMeters> meters = new ConcurrentHashMap<>();
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStats stats = isAsyncDispatch(request) ? RequestSqlStats.of(request) : RequestSqlStats.start(request);
+        if (stats == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        HttpServletResponse target = response;
+        if (serverTiming && !request.getRequestURI().startsWith(UNBUFFERED_PREFIX)) {
+            ContentCachingResponseWrapper existing = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            target = existing != null ? existing : new ContentCachingResponseWrapper(response);
+        }
+        
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                complete(request, target, stats);
+            }
+        }
+    }
+    
+    private void complete(HttpServletRequest request, HttpServletResponse response, RequestSqlStats stats)
+            throws IOException {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        
+        RouteMeters route = meters.computeIfAbsent(method + " " + uri, key -> new RouteMeters(
+                DistributionSummary.builder("sql.request.statements")
+                        .description("SQL statements executed per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry),
+                Timer.builder("sql.request.time")
+                        .description("Time spent executing SQL per HTTP request")
+                        .tags("method", method, "uri", uri)
+                        .register(meterRegistry)));
+        route.statements().record(stats.getStatements());
+        route.time().record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        
+        if (stats.getStatements() > repeatThreshold) {
+            stats.getRepeatedStatements(repeatThreshold).forEach((sql, count) ->
+                    log.warn("Possible N+1 in {} {}: statement prepared {} times in one request: {}",
+                            method, uri, count, shape(sql)));
+        }
+        
+        if (response instanceof ContentCachingResponseWrapper buffered) {
+            long now = System.nanoTime();
+            long serializeStart = stats.getSerializeStartNanos();
+            buffered.setHeader("Server-Timing", String.format(Locale.ROOT,
+                    "db;desc=\"%d statements\";dur=%.2f, serialize;dur=%.2f, total;dur=%.2f",
+                    stats.getStatements(), stats.getNanos() / 1e6,
+                    serializeStart > 0 ? (now - serializeStart) / 1e6 : 0.0,
+                    (now - stats.getStartNanos()) / 1e6));
+            buffered.copyBodyToResponse();
+        }
+    }
+    
+    private static String shape(String sql) {
+        String shape = sql.replaceAll("\\s+", " ").trim();
+        return shape.length() > 300 ? shape.substring(0, 300) + "..." : shape;
+    }
+    
+    private record RouteMeters(DistributionSummary statements, Timer time) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.ammas.pastries.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL statements and JDBC time accumulated by one HTTP request, including work the
+ * request hands to the reporting bulkhead. Statements are also counted by their SQL
+ * text, so a query repeated once per row (N+1) stands out.
+ */
+public class RequestSqlStats {
+    
+    private static final String ATTRIBUTE = RequestSqlStats.class.getName();
+    
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final Map<String, AtomicInteger> preparedBySql = new ConcurrentHashMap<>();
+    private volatile long serializeStartNanos;
+    
+    static RequestSqlStats start(HttpServletRequest request) {
+        RequestSqlStats stats = new RequestSqlStats();
+        request.setAttribute(ATTRIBUTE, stats);
+        return stats;
+    }
+    
+    /**
+     * @return the stats collected for this request, or null if it was not measured
+     */
+    public static RequestSqlStats of(HttpServletRequest request) {
+        return (RequestSqlStats) request.getAttribute(ATTRIBUTE);
+    }
+    
+    /**
+     * @return the stats of the request bound to this thread, or null outside a request
+     */
+    public static RequestSqlStats current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        // Read from the request itself: the attributes object rejects reads once the
+        // request has completed, which a bulkhead worker may still be running after
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return of(servletAttributes.getRequest());
+        }
+        return null;
+    }
+    
+    void record(long elapsedNanos) {
+        statements.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+    }
+    
+    void recordSql(String sql) {
+        preparedBySql.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    void markSerializeStart() {
+        serializeStartNanos = System.nanoTime();
+    }
+    
+    public int getStatements() {
+        return statements.get();
+    }
+    
+    public long getNanos() {
+        return nanos.get();
+    }
+    
+    long getStartNanos() {
+        return startNanos;
+    }
+    
+    long getSerializeStartNanos() {
+        return serializeStartNanos;
+    }
+    
+    /**
+     * @return statements prepared more than maxRepeats times, with their count, most repeated first
+     */
+    public Map<String, Integer> getRepeatedStatements(int maxRepeats) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        preparedBySql.entrySet().stream()
+                .filter(entry -> entry.getValue().get() > maxRepeats)
+                .sorted((a, b) -> Integer.compare(b.getValue().get(), a.getValue().get()))
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue().get()));
+        return repeated;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ammas.pastries.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered per Hibernate session (hibernate.session.events.auto) to time every JDBC
+ * execution into the current request's {@link RequestSqlStats}. Statements outside an
+ * HTTP request, such as scheduled jobs, are not recorded.
+ */
+public class SqlMetricsSessionListener implements SessionEventListener {
+    
+    private long executeStart;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+    
+    private void record() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.record(System.nanoTime() - executeStart);
+        }
+    }
+}
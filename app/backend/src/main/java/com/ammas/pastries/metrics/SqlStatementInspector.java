@@ -0,0 +1,20 @@
+package com.ammas.pastries.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts each statement Hibernate prepares by its SQL text for the current request, which
+ * is what N+1 detection looks at. Bound parameters are not part of the text, so one query
+ * run per row of a parent result shows up as a single, repeated entry.
+ */
+public class SqlStatementInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordSql(sql);
+        }
+        return sql;
+    }
+}
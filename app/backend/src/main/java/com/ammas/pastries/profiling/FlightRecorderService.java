@@ -0,0 +1,243 @@
+package com.ammas.pastries.profiling;
+
+import com.ammas.pastries.dto.ProfileSummaryDTO;
+import com.ammas.pastries.dto.RecordingDTO;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time-bounded Java Flight Recorder recordings of the live JVM. Starts from the JDK's
+ * "profile" settings, tuned for the hot paths we care about: sampled allocations, monitor
+ * contention and thread parks above 1 ms, and socket reads above 1 ms (JDBC round trips).
+ * Only one recording runs at a time; the newest few files are kept on disk.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+    
+    private static final Map<String, String> TUNED_SETTINGS = Map.ofEntries(
+            Map.entry("jdk.ExecutionSample#enabled", "true"),
+            Map.entry("jdk.ExecutionSample#period", "10 ms"),
+            Map.entry("jdk.ObjectAllocationSample#enabled", "true"),
+            Map.entry("jdk.ObjectAllocationSample#throttle", "300/s"),
+            Map.entry("jdk.JavaMonitorEnter#enabled", "true"),
+            Map.entry("jdk.JavaMonitorEnter#threshold", "1 ms"),
+            Map.entry("jdk.JavaMonitorWait#threshold", "10 ms"),
+            Map.entry("jdk.ThreadPark#enabled", "true"),
+            Map.entry("jdk.ThreadPark#threshold", "1 ms"),
+            Map.entry("jdk.SocketRead#enabled", "true"),
+            Map.entry("jdk.SocketRead#threshold", "1 ms"),
+            Map.entry("jdk.SocketWrite#threshold", "1 ms"),
+            // Leak profiling keeps paths to GC roots; not worth its cost here
+            Map.entry("jdk.OldObjectSample#enabled", "false"));
+    
+    @Value("${profiling.jfr.directory:${java.io.tmpdir}/ammas-pastries-jfr}")
+    private String directory;
+    
+    @Value("${profiling.jfr.max-duration-seconds:300}")
+    private long maxDurationSeconds;
+    
+    @Value("${profiling.jfr.retained-recordings:5}")
+    private int retainedRecordings;
+    
+    // Insertion order is start order, so the first entries are the oldest
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+    
+    public synchronized RecordingDTO start(long durationSeconds) {
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new RuntimeException("Recording duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        for (Recording existing : recordings.values()) {
+            if (existing.getState() == RecordingState.RUNNING || existing.getState() == RecordingState.DELAYED) {
+                throw new RuntimeException("Recording " + existing.getId() + " is still running");
+            }
+        }
+        
+        Recording recording;
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("profile").getSettings());
+            settings.putAll(TUNED_SETTINGS);
+            recording = new Recording(settings);
+            Files.createDirectories(Paths.get(directory));
+            recording.setName("admin-profile");
+            recording.setToDisk(true);
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+            recording.setDestination(fileOf(recording));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not set up flight recording", e);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started flight recording {} for {}s", recording.getId(), durationSeconds);
+        
+        pruneOldRecordings();
+        return toDto(recording);
+    }
+    
+    public synchronized List<RecordingDTO> list() {
+        return recordings.values().stream().map(this::toDto).toList();
+    }
+    
+    public synchronized RecordingDTO get(long id) {
+        return toDto(find(id));
+    }
+    
+    /**
+     * @return the finished recording file; fails while the recording is still running
+     */
+    public synchronized Path file(long id) {
+        Recording recording = find(id);
+        if (recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED) {
+            throw new RuntimeException("Recording " + id + " is still running");
+        }
+        Path file = fileOf(recording);
+        if (!Files.exists(file)) {
+            throw new RuntimeException("Recording file for " + id + " is no longer available");
+        }
+        return file;
+    }
+    
+    /**
+     * Parses a finished recording in-process. CPU-heavy for long recordings, so callers
+     * run it on the reporting bulkhead.
+     */
+    public ProfileSummaryDTO summarize(long id, int limit) {
+        Path file = file(id);
+        Map<String, long[]> allocations = new HashMap<>();
+        Map<String, long[]> methods = new HashMap<>();
+        Map<String, long[]> monitors = new HashMap<>();
+        long executionSamples = 0;
+        long allocationSamples = 0;
+        long monitorEvents = 0;
+        
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        executionSamples++;
+                        add(methods, topFrame(event), 1);
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        allocationSamples++;
+                        add(allocations, topFrame(event), event.getLong("weight"));
+                    }
+                    case "jdk.JavaMonitorEnter" -> {
+                        monitorEvents++;
+                        RecordedClass monitorClass = event.getClass("monitorClass");
+                        add(monitors, monitorClass != null ? monitorClass.getName() : "unknown",
+                                event.getDuration().toMillis());
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording " + id, e);
+        }
+        
+        return ProfileSummaryDTO.builder()
+                .recordingId(id)
+                .executionSamples(executionSamples)
+                .allocationSamples(allocationSamples)
+                .monitorEnterEvents(monitorEvents)
+                .topAllocatingFrames(top(allocations, limit))
+                .hottestMethods(top(methods, limit))
+                .mostContendedMonitors(top(monitors, limit))
+                .build();
+    }
+    
+    @PreDestroy
+    public synchronized void closeAll() {
+        recordings.values().forEach(Recording::close);
+    }
+    
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new RuntimeException("Recording not found with id: " + id);
+        }
+        return recording;
+    }
+    
+    private void pruneOldRecordings() {
+        while (recordings.size() > retainedRecordings) {
+            Recording oldest = recordings.values().iterator().next();
+            recordings.remove(oldest.getId());
+            oldest.close();
+            try {
+                Files.deleteIfExists(fileOf(oldest));
+            } catch (IOException e) {
+                log.warn("Could not delete old recording {}: {}", oldest.getId(), e.getMessage());
+            }
+        }
+    }
+    
+    private Path fileOf(Recording recording) {
+        return Paths.get(directory, "recording-" + recording.getId() + ".jfr");
+    }
+    
+    private RecordingDTO toDto(Recording recording) {
+        Path file = fileOf(recording);
+        Long size = null;
+        try {
+            size = Files.exists(file) ? Files.size(file) : null;
+        } catch (IOException ignored) {
+            // Size is informational only
+        }
+        return RecordingDTO.builder()
+                .id(recording.getId())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime())
+                .durationSeconds(recording.getDuration() != null ? recording.getDuration().toSeconds() : null)
+                .sizeBytes(size)
+                .build();
+    }
+    
+    private static String topFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+    
+    private static void add(Map<String, long[]> totals, String key, long value) {
+        long[] entry = totals.computeIfAbsent(key, k -> new long[2]);
+        entry[0]++;
+        entry[1] += value;
+    }
+    
+    private static List<ProfileSummaryDTO.HotSpot> top(Map<String, long[]> totals, int limit) {
+        List<ProfileSummaryDTO.HotSpot> hotSpots = new ArrayList<>();
+        totals.forEach((name, entry) -> hotSpots.add(new ProfileSummaryDTO.HotSpot(name, entry[0], entry[1])));
+        hotSpots.sort(Comparator.comparingLong(ProfileSummaryDTO.HotSpot::getTotal).reversed());
+        return List.copyOf(hotSpots.subList(0, Math.min(limit, hotSpots.size())));
+    }
+}
@@ -0,0 +1,23 @@
+package com.ammas.pastries.repository;
+
+import com.ammas.pastries.entity.CustomerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerSketchRepository extends JpaRepository<CustomerSketch, LocalDate> {
+    
+    List<CustomerSketch> findBySketchDateBetween(LocalDate from, LocalDate to);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CustomerSketch s WHERE s.sketchDate = :sketchDate")
+    Optional<CustomerSketch> findForUpdate(@Param("sketchDate") LocalDate sketchDate);
+}
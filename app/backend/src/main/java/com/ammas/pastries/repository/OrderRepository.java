@@ -32,4 +32,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT DATE(o.createdAt), SUM(o.totalPrice) FROM Order o " +
            "WHERE o.createdAt >= :startDate GROUP BY DATE(o.createdAt) ORDER BY DATE(o.createdAt)")
     List<Object[]> getSalesByDate(@Param("startDate") LocalDateTime startDate);
+    
+    @Query("SELECT DISTINCT o.user.id FROM Order o WHERE o.createdAt >= :startDate AND o.createdAt < :endDate")
+    List<Long> findDistinctUserIdsByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
 }
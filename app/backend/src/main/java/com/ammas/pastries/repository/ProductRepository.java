@@ -1,18 +1,31 @@
 package com.ammas.pastries.repository;
 
+import com.ammas.pastries.cache.CacheRegions;
 import com.ammas.pastries.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATALOG_QUERIES)
+    })
     List<Product> findByFeaturedTrue();
     
     List<Product> findByCategory(String category);
@@ -27,9 +40,50 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                           @Param("search") String search, 
                                           Pageable pageable);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATALOG_QUERIES)
+    })
     @Query("SELECT DISTINCT p.category FROM Product p ORDER BY p.category")
     List<String> findAllCategories();
     
     @Query("SELECT p FROM Product p WHERE p.stock > 0 ORDER BY p.rating DESC")
     List<Product> findTopRatedProducts(Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    
+    // Rows are locked in primary key order, whatever order the ids were given in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT p.id, p.reviewCount, p.ratingSum, p.ratingHistogram FROM Product p")
+    List<Object[]> findRatingAggregates();
+    
+    // Adds addedRating and removes removedRating (0 for none) from the aggregate and histogram.
+    // rating is assigned first so it reads the pre-update sum and count on MySQL as well.
+    // Declaring the products table limits second-level cache invalidation to product data.
+    // updated_at is set explicitly: schemas created by Hibernate have no ON UPDATE clause,
+    // and the cache coherence sweep finds changed products by it.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products"))
+    @Query(value = "UPDATE products SET " +
+                   "rating = CASE WHEN review_count + :countDelta > 0 " +
+                   "THEN ROUND((rating_sum + :ratingDelta) / (review_count + :countDelta), 1) ELSE 5.0 END, " +
+                   "rating_sum = rating_sum + :ratingDelta, " +
+                   "review_count = review_count + :countDelta, " +
+                   "rating_1_count = rating_1_count + CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END, " +
+                   "rating_2_count = rating_2_count + CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END, " +
+                   "rating_3_count = rating_3_count + CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END, " +
+                   "rating_4_count = rating_4_count + CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END, " +
+                   "rating_5_count = rating_5_count + CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END - CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END, " +
+                   "updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id = :productId", nativeQuery = true)
+    int applyRatingChange(@Param("productId") Long productId,
+                          @Param("addedRating") int addedRating,
+                          @Param("removedRating") int removedRating,
+                          @Param("ratingDelta") int ratingDelta,
+                          @Param("countDelta") int countDelta);
 }
@@ -1,24 +1,67 @@
 package com.ammas.pastries.repository;
 
+import com.ammas.pastries.dto.ReviewDTO;
 import com.ammas.pastries.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
-    List<Review> findByProductIdOrderByCreatedAtDesc(Long productId);
+    // Keyset pages for the product review list. Author names come from the same query
+    // through the ReviewDTO constructor, and each ordering is served by one of the
+    // composite indexes declared on Review.
+    @Query("SELECT new com.ammas.pastries.dto.ReviewDTO(r.id, u.id, u.name, r.product.id, r.rating, r.comment, r.createdAt) " +
+           "FROM Review r JOIN r.user u WHERE r.product.id = :productId AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findNewestPage(@Param("productId") Long productId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+    
+    @Query("SELECT new com.ammas.pastries.dto.ReviewDTO(r.id, u.id, u.name, r.product.id, r.rating, r.comment, r.createdAt) " +
+           "FROM Review r JOIN r.user u WHERE r.product.id = :productId AND " +
+           "(r.rating < :rating OR (r.rating = :rating AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)))) " +
+           "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findHighestRatedPage(@Param("productId") Long productId,
+                                         @Param("rating") Integer rating,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+    
+    @Query("SELECT new com.ammas.pastries.dto.ReviewDTO(r.id, u.id, u.name, r.product.id, r.rating, r.comment, r.createdAt) " +
+           "FROM Review r JOIN r.user u WHERE r.product.id = :productId AND " +
+           "(r.rating > :rating OR (r.rating = :rating AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)))) " +
+           "ORDER BY r.rating ASC, r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findLowestRatedPage(@Param("productId") Long productId,
+                                        @Param("rating") Integer rating,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
     
     Optional<Review> findByUserIdAndProductId(Long userId, Long productId);
     
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
-    Double calculateAverageRatingByProductId(@Param("productId") Long productId);
+    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.product.id = :productId GROUP BY r.rating")
+    List<Object[]> countByRatingForProduct(@Param("productId") Long productId);
     
     @Query("SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
     Long countByProductId(@Param("productId") Long productId);
+    
+    @Query("SELECT r.product.id, r.rating, COUNT(r) FROM Review r GROUP BY r.product.id, r.rating")
+    List<Object[]> countByRatingForAllProducts();
+    
+    @Query("SELECT r.product.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.product.id IN :productIds GROUP BY r.product.id, r.rating")
+    List<Object[]> countByRatingForProducts(@Param("productIds") Collection<Long> productIds);
 }
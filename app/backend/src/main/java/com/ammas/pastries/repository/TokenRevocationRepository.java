@@ -0,0 +1,14 @@
+package com.ammas.pastries.repository;
+
+import com.ammas.pastries.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    
+    List<TokenRevocation> findByRevokedAtAfter(LocalDateTime cutoff);
+}
@@ -1,13 +1,21 @@
 package com.ammas.pastries.repository;
 
+import com.ammas.pastries.cache.CacheRegions;
 import com.ammas.pastries.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.USER_BY_EMAIL)
+    })
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
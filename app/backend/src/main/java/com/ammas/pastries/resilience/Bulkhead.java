@@ -0,0 +1,39 @@
+package com.ammas.pastries.resilience;
+
+/**
+ * Isolated resource partitions. Work runs in {@link #STOREFRONT} unless it was submitted
+ * through {@link ReportingBulkhead}, whose threads are bound to {@link #REPORTING}.
+ */
+public enum Bulkhead {
+    STOREFRONT,
+    REPORTING;
+    
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+    
+    public static Bulkhead current() {
+        Bulkhead bulkhead = CURRENT.get();
+        return bulkhead != null ? bulkhead : STOREFRONT;
+    }
+    
+    /**
+     * Runs a write from a reporting thread on the storefront pool; the reporting pool's
+     * connections are read-only.
+     */
+    public static void runInStorefront(Runnable task) {
+        Bulkhead previous = CURRENT.get();
+        CURRENT.set(STOREFRONT);
+        try {
+            task.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+    
+    static void bind(Bulkhead bulkhead) {
+        CURRENT.set(bulkhead);
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ammas.pastries.resilience;
+
+import com.ammas.pastries.dto.BulkheadStatsDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Connection pool meters come from Boot's Hikari binding, tagged by pool name
+@Component
+public class BulkheadMonitor implements MeterBinder {
+    
+    @Autowired
+    @Qualifier("storefrontDataSource")
+    private HikariDataSource storefrontDataSource;
+    
+    @Autowired
+    @Qualifier("reportingDataSource")
+    private HikariDataSource reportingDataSource;
+    
+    @Autowired
+    private ReportingBulkhead reportingBulkhead;
+    
+    public List<BulkheadStatsDTO> getStats() {
+        BulkheadStatsDTO storefront = poolStats(Bulkhead.STOREFRONT, storefrontDataSource).build();
+        
+        ThreadPoolExecutor executor = reportingBulkhead.getExecutor();
+        BulkheadStatsDTO reporting = poolStats(Bulkhead.REPORTING, reportingDataSource)
+                .maxThreads(executor.getMaximumPoolSize())
+                .activeThreads(executor.getActiveCount())
+                .queuedTasks(executor.getQueue().size())
+                .queueRemainingCapacity(executor.getQueue().remainingCapacity())
+                .completedTasks(executor.getCompletedTaskCount())
+                .rejectedTasks(reportingBulkhead.getRejected())
+                .build();
+        
+        return List.of(storefront, reporting);
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ThreadPoolExecutor executor = reportingBulkhead.getExecutor();
+        Gauge.builder("bulkhead.reporting.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        Gauge.builder("bulkhead.reporting.queued", executor, e -> e.getQueue().size()).register(registry);
+        FunctionCounter.builder("bulkhead.reporting.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .register(registry);
+        FunctionCounter.builder("bulkhead.reporting.rejected", reportingBulkhead, ReportingBulkhead::getRejected)
+                .register(registry);
+    }
+    
+    private BulkheadStatsDTO.BulkheadStatsDTOBuilder poolStats(Bulkhead bulkhead, HikariDataSource dataSource) {
+        BulkheadStatsDTO.BulkheadStatsDTOBuilder builder = BulkheadStatsDTO.builder()
+                .bulkhead(bulkhead.name().toLowerCase())
+                .maxConnections(dataSource.getMaximumPoolSize());
+        // Null until the pool has handed out its first connection
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            builder.activeConnections(pool.getActiveConnections())
+                    .idleConnections(pool.getIdleConnections())
+                    .threadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ammas.pastries.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One adaptive limit per endpoint group. Each group's initial, min and max limit come
+ * from concurrency.limit.&lt;group&gt;.initial|min|max.
+ */
+@Component
+public class ConcurrencyLimitRegistry implements MeterBinder {
+    
+    public static final String CATALOG = "catalog";
+    public static final String CHECKOUT = "checkout";
+    public static final String ADMIN = "admin";
+    public static final String AUTH = "auth";
+    
+    @Autowired
+    private Environment environment;
+    
+    private final Map<String, GradientConcurrencyLimit> limits = new LinkedHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        register(CATALOG, 100, 20, 400);
+        register(CHECKOUT, 20, 4, 60);
+        register(ADMIN, 4, 1, 10);
+        register(AUTH, 16, 2, 64);
+    }
+    
+    /**
+     * @return the limit guarding this request, or null for endpoints outside every group
+     */
+    public GradientConcurrencyLimit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/")) {
+            return limits.get(AUTH);
+        }
+        if (path.startsWith("/api/admin/")) {
+            return limits.get(ADMIN);
+        }
+        if (path.startsWith("/api/orders")) {
+            return limits.get(CHECKOUT);
+        }
+        if ("GET".equals(request.getMethod())
+                && (path.startsWith("/api/products") || path.startsWith("/api/reviews"))) {
+            return limits.get(CATALOG);
+        }
+        return null;
+    }
+    
+    public Collection<GradientConcurrencyLimit> getLimits() {
+        return limits.values();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (GradientConcurrencyLimit limit : limits.values()) {
+            Gauge.builder("concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .tag("group", limit.getName()).register(registry);
+            Gauge.builder("concurrency.limit.in.flight", limit, GradientConcurrencyLimit::getInFlight)
+                    .tag("group", limit.getName()).register(registry);
+            FunctionCounter.builder("concurrency.limit.rejected", limit, GradientConcurrencyLimit::getRejected)
+                    .tag("group", limit.getName()).register(registry);
+        }
+    }
+    
+    private void register(String group, int initial, int min, int max) {
+        String prefix = "concurrency.limit." + group + ".";
+        limits.put(group, new GradientConcurrencyLimit(group,
+                environment.getProperty(prefix + "initial", Integer.class, initial),
+                environment.getProperty(prefix + "min", Integer.class, min),
+                environment.getProperty(prefix + "max", Integer.class, max)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ammas.pastries.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit driven by the latency gradient.
+ *
+ * A slow exponential average of request latency is the baseline; a fast one tracks
+ * current latency. While current latency stays near the baseline the limit grows by a
+ * small queue allowance; when it rises (requests waiting on the Hikari pool, CPU
+ * saturation) the limit shrinks in proportion, down to half per update. Samples taken
+ * while the group is using less than half its limit carry no signal and are ignored.
+ *
+ * Admission is a CAS on the in-flight counter. Limit updates take a lock with tryLock,
+ * so a completion that finds another update in progress just skips its sample.
+ */
+public class GradientConcurrencyLimit {
+    
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW_WEIGHT = 0.1;
+    private static final double LONG_WINDOW_WEIGHT = 0.002;
+    
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private volatile long latencyBaselineMicros;
+    
+    public GradientConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+    
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            onSample(rttNanos, inFlightAtCompletion);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+    
+    private void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW_WEIGHT;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_WEIGHT;
+        
+        // Let the baseline follow a sustained latency improvement quickly
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        latencyBaselineMicros = (long) (longRttNanos / 1000);
+        
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double queueAllowance = Math.sqrt(estimatedLimit);
+        double target = estimatedLimit * gradient + queueAllowance;
+        
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejected() {
+        return rejected.get();
+    }
+    
+    public long getLatencyBaselineMicros() {
+        return latencyBaselineMicros;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ammas.pastries.resilience;
+
+import com.ammas.pastries.exception.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs admin reports and analytics on their own threads and connection pool. Returning the
+ * future from a controller frees the Tomcat thread while the report runs.
+ * The executor is owned here, not registered as a bean (see SecurityConfig's hashing pool).
+ */
+@Component
+public class ReportingBulkhead {
+    
+    @Autowired
+    private Environment environment;
+    
+    @Value("${bulkhead.reporting.threads:2}")
+    private int threads;
+    
+    @Value("${bulkhead.reporting.queue-capacity:20}")
+    private int queueCapacity;
+    
+    private ThreadPoolExecutor executor;
+    
+    private final AtomicLong rejected = new AtomicLong();
+    
+    // A full queue is rejected with a 503 rather than letting reports pile up. The pool size
+    // stays the bulkhead's bound in virtual-thread mode; only the threads themselves change.
+    @PostConstruct
+    public void createExecutor() {
+        ThreadFactory threadFactory;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            threadFactory = new VirtualThreadTaskExecutor("reporting-").getVirtualThreadFactory();
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "reporting-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        // Carried over so request-scoped instrumentation and log lines still see the originating request
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Bulkhead.bind(Bulkhead.REPORTING);
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    return task.get();
+                } finally {
+                    MDC.clear();
+                    RequestContextHolder.resetRequestAttributes();
+                    Bulkhead.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ServiceUnavailableException("Reporting is busy, please retry shortly", 5);
+        }
+    }
+    
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+    
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ammas.pastries.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-IP throttle in front of the auth endpoints. Rejections are answered before the
+ * body is parsed, so they cost no JSON binding, no password hashing and no query.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"status\":429,\"message\":\"Too many authentication attempts, please retry later\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/auth/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long retryAfter = authRateLimiter.tryAcquireForIp(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+            response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+}
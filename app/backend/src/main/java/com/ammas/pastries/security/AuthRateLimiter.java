@@ -0,0 +1,106 @@
+package com.ammas.pastries.security;
+
+import com.ammas.pastries.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token buckets for /api/auth, one per client IP and one per account email.
+ *
+ * Buckets live in size-bounded caches and are dropped after sitting idle, so memory stays
+ * bounded however many addresses or emails an attacker cycles through. An evicted bucket
+ * would have been full again anyway once the idle timeout exceeds its refill time.
+ */
+@Component
+public class AuthRateLimiter {
+    
+    @Value("${security.rate-limit.auth.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${security.rate-limit.auth.ip.capacity:20}")
+    private long ipCapacity;
+    
+    @Value("${security.rate-limit.auth.ip.refill-per-minute:20}")
+    private double ipRefillPerMinute;
+    
+    @Value("${security.rate-limit.auth.account.capacity:5}")
+    private long accountCapacity;
+    
+    @Value("${security.rate-limit.auth.account.refill-per-minute:5}")
+    private double accountRefillPerMinute;
+    
+    @Value("${security.rate-limit.auth.max-buckets:100000}")
+    private long maxBuckets;
+    
+    @Value("${security.rate-limit.auth.idle-timeout-minutes:10}")
+    private long idleTimeoutMinutes;
+    
+    private Cache<String, TokenBucket> ipBuckets;
+    private Cache<String, TokenBucket> accountBuckets;
+    
+    @PostConstruct
+    public void init() {
+        ipBuckets = newBucketCache();
+        accountBuckets = newBucketCache();
+    }
+    
+    /**
+     * @return 0 if the request may proceed, otherwise seconds until the IP may retry
+     */
+    public long tryAcquireForIp(String ip) {
+        if (!enabled) {
+            return 0;
+        }
+        return acquire(ipBuckets, ip, ipCapacity, ipRefillPerMinute);
+    }
+    
+    /**
+     * Checks the account's bucket without charging it, so correct passwords never use it up.
+     *
+     * @return 0 if the login may proceed, otherwise seconds until the account may retry
+     */
+    public long checkAccount(String email) {
+        if (!enabled || email == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        return toSeconds(accountBucket(email, now).timeUntilAvailable(now));
+    }
+    
+    // Only failed logins are charged to the account
+    public void recordFailedLogin(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        accountBucket(email, now).tryAcquire(now);
+    }
+    
+    private TokenBucket accountBucket(String email, long now) {
+        return accountBuckets.get(email.trim().toLowerCase(Locale.ROOT),
+                k -> new TokenBucket(accountCapacity, accountRefillPerMinute, now));
+    }
+    
+    private long acquire(Cache<String, TokenBucket> buckets, String key, long capacity, double refillPerMinute) {
+        long now = System.currentTimeMillis();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPerMinute, now));
+        return toSeconds(bucket.tryAcquire(now));
+    }
+    
+    private static long toSeconds(long waitMs) {
+        return waitMs == 0 ? 0 : Math.max(1, (waitMs + 999) / 1000);
+    }
+    
+    private Cache<String, TokenBucket> newBucketCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(idleTimeoutMinutes))
+                .build();
+    }
+}
@@ -1,11 +1,15 @@
 package com.ammas.pastries.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,7 +21,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@Slf4j
 public class AuthTokenFilter extends OncePerRequestFilter {
     
     @Autowired
@@ -26,16 +29,43 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private SecurityEventLog securityEventLog;
+    
+    // When true the principal is built from the verified claims and no user query is made
+    @Value("${jwt.claims-principal:false}")
+    private boolean claimsPrincipal;
+    
+    private Timer verificationTimer;
+    
+    @PostConstruct
+    public void init() {
+        verificationTimer = Timer.builder("security.jwt.verification")
+                .description("JWT signature and claims verification, including verified-token cache hits")
+                .register(meterRegistry);
+    }
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                     HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? verificationTimer.recordCallable(() -> jwtUtils.verifyJwtToken(jwt)) : null;
+            if (claims != null && tokenRevocationService.isRevoked(claims.get("id", Long.class), claims.getIssuedAt())) {
+                securityEventLog.warn("jwt.revoked", "Rejected revoked token for {}", claims.getSubject());
+                claims = null;
+            }
+            if (claims != null) {
+                UserDetails userDetails = claimsPrincipal
+                        ? UserDetailsImpl.fromClaims(claims)
+                        : userDetailsService.loadUserByUsername(claims.getSubject());
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails,
                                 null,
@@ -45,7 +75,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
-            log.error("Cannot set user authentication: {}", e.getMessage());
+            securityEventLog.warn("authentication.error", "Cannot set user authentication: {}", e.getMessage());
         }
         
         filterChain.doFilter(request, response);
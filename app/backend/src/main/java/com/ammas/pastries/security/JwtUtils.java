@@ -1,28 +1,73 @@
 package com.ammas.pastries.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@Slf4j
 public class JwtUtils {
     
+    @Autowired
+    private SecurityEventLog securityEventLog;
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    
+    // Built once; both are immutable and safe to share between request threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    // Verified claims keyed by SHA-256 of the token, each entry expiring with the token's exp
+    private Cache<ByteBuffer, Claims> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        
+        if (verifiedCacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                        @Override
+                        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                        }
+                        
+                        @Override
+                        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                        
+                        @Override
+                        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
     }
     
     public String generateJwtToken(Authentication authentication) {
@@ -35,37 +80,65 @@ public class JwtUtils {
                 .claim("role", userPrincipal.getRole().name())
                 .issuedAt(new Date())
                 .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid or expired.
+     * Tokens seen before are answered from the verified-token cache without re-checking the HMAC.
+     */
+    public Claims verifyJwtToken(String authToken) {
+        if (verifiedTokens == null) {
+            return parseClaims(authToken);
+        }
+        
+        ByteBuffer key = hash(authToken);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = parseClaims(authToken);
+            if (claims != null && claims.getExpiration() != null) {
+                verifiedTokens.put(key, claims);
+            }
+        }
+        return claims;
+    }
+    
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        Claims claims = verifyJwtToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
     
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
+    }
+    
+    private Claims parseClaims(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return parser.parseSignedClaims(authToken).getPayload();
         } catch (SecurityException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
+            securityEventLog.warn("jwt.invalid", "Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
+            securityEventLog.warn("jwt.invalid", "Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
+            // Routine for clients holding an old token
+            securityEventLog.warn("jwt.expired", "JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
+            securityEventLog.warn("jwt.invalid", "JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
+            securityEventLog.warn("jwt.invalid", "JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            securityEventLog.warn("jwt.invalid", "JWT token is invalid: {}", e.getMessage());
+        }
+        return null;
+    }
+    
+    private ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return false;
     }
 }
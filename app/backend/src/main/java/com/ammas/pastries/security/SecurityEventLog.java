@@ -0,0 +1,99 @@
+package com.ammas.pastries.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limited, sampled WARN logging for security failures that an attacker controls the
+ * volume of (bad tokens, failed logins, 401s). Per event type, the first security.log.burst
+ * events of each window are logged, then one in security.log.sample-rate; the rest are only
+ * counted and reported as a single summary line when the window closes. Every event is still
+ * counted in security.events.
+ *
+ * Nothing is formatted or allocated for a suppressed event beyond the counter updates.
+ */
+@Component
+@Slf4j
+public class SecurityEventLog {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${security.log.burst:5}")
+    private int burst;
+    
+    @Value("${security.log.sample-rate:100}")
+    private int sampleRate;
+    
+    @Value("${security.log.window-ms:60000}")
+    private long windowMs;
+    
+    // Keyed by a fixed set of event names, never by user input
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    
+    public void warn(String event, String format, Object arg) {
+        long sampled = permit(event);
+        if (sampled >= 0) {
+            log.atWarn().addKeyValue("event", event).addKeyValue("sampled", sampled).log(format, arg);
+        }
+    }
+    
+    public void warn(String event, String format, Object arg1, Object arg2) {
+        long sampled = permit(event);
+        if (sampled >= 0) {
+            log.atWarn().addKeyValue("event", event).addKeyValue("sampled", sampled).log(format, arg1, arg2);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${security.log.window-ms:60000}")
+    public void closeWindow() {
+        windows.forEach((event, window) -> {
+            long seen = window.seen.getAndSet(0);
+            long logged = window.logged.getAndSet(0);
+            if (seen > logged) {
+                log.atWarn().addKeyValue("event", event).addKeyValue("suppressed", seen - logged)
+                        .log("Suppressed {} of {} '{}' events in the last {}s", seen - logged, seen, event, windowMs / 1000);
+            }
+        });
+    }
+    
+    /**
+     * @return -1 to suppress, 0 if within the burst, otherwise the sampling rate the event stands for
+     */
+    private long permit(String event) {
+        Window window = windows.computeIfAbsent(event, key -> new Window(Counter.builder("security.events")
+                .description("Security failures by event type, including those not logged")
+                .tag("event", key)
+                .register(meterRegistry)));
+        window.counter.increment();
+        long seen = window.seen.incrementAndGet();
+        if (seen <= burst) {
+            window.logged.incrementAndGet();
+            return 0;
+        }
+        if (sampleRate > 0 && (seen - burst) % sampleRate == 0) {
+            window.logged.incrementAndGet();
+            return sampleRate;
+        }
+        return -1;
+    }
+    
+    private static final class Window {
+        private final AtomicLong seen = new AtomicLong();
+        private final AtomicLong logged = new AtomicLong();
+        private final Counter counter;
+        
+        private Window(Counter counter) {
+            this.counter = counter;
+        }
+    }
+}
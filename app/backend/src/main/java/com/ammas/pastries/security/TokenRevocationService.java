@@ -0,0 +1,117 @@
+package com.ammas.pastries.security;
+
+import com.ammas.pastries.entity.TokenRevocation;
+import com.ammas.pastries.repository.TokenRevocationRepository;
+import com.ammas.pastries.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejects tokens issued before a user's role changed or the account was disabled.
+ *
+ * The token_revocations table is mirrored in memory as a Bloom filter in front of an
+ * exact user id -> revoked-at map. Almost every request misses the Bloom filter and
+ * pays no map lookup and no query. The mirror is rebuilt from the table on a fixed
+ * delay, so a revocation made on another node takes effect here within one interval.
+ * Rows older than the token lifetime can no longer match a live token and are skipped.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+    
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (!current.filter.mightContain(userId)) {
+            return false;
+        }
+        LocalDateTime revokedAt = current.revokedAt.get(userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        // iat has second precision, so a token from the revocation's own second is rejected too
+        return issuedAt == null
+                || !LocalDateTime.ofInstant(issuedAt.toInstant(), ZoneId.systemDefault())
+                        .isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+    
+    @Transactional
+    public void revokeUser(Long userId, String reason) {
+        TokenRevocation revocation = new TokenRevocation(userId, LocalDateTime.now(), reason);
+        revocationRepository.save(revocation);
+        
+        rememberAfterCommit(userId, revocation.getRevokedAt());
+        log.info("Revoked tokens for user {}: {}", userId, reason);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(jwtExpirationMs * 1_000_000);
+        List<TokenRevocation> rows = revocationRepository.findByRevokedAtAfter(cutoff);
+        
+        Map<Long, LocalDateTime> revokedAt = new HashMap<>();
+        for (TokenRevocation row : rows) {
+            revokedAt.put(row.getUserId(), row.getRevokedAt());
+        }
+        snapshot = Snapshot.of(revokedAt);
+    }
+    
+    // Effective on this node once committed, on the others after their next refresh; a
+    // rolled-back revocation never reaches the snapshot
+    private void rememberAfterCommit(Long userId, LocalDateTime revokedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(userId, revokedAt);
+                }
+            });
+        } else {
+            remember(userId, revokedAt);
+        }
+    }
+    
+    private void remember(Long userId, LocalDateTime at) {
+        Map<Long, LocalDateTime> revokedAt = new HashMap<>(snapshot.revokedAt);
+        revokedAt.put(userId, at);
+        snapshot = Snapshot.of(revokedAt);
+    }
+    
+    private record Snapshot(BloomFilter filter, Map<Long, LocalDateTime> revokedAt) {
+        
+        static final Snapshot EMPTY = of(Map.of());
+        
+        static Snapshot of(Map<Long, LocalDateTime> revokedAt) {
+            BloomFilter filter = new BloomFilter(revokedAt.size(), 0.01);
+            revokedAt.keySet().forEach(filter::add);
+            return new Snapshot(filter, Map.copyOf(revokedAt));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ammas.pastries.security;
 
 import com.ammas.pastries.entity.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -40,6 +41,21 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
     
+    // Principal for a verified token without a database round trip; carries no password
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        User.Role role = User.Role.valueOf(claims.get("role", String.class));
+        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role.name());
+        
+        return new UserDetailsImpl(
+                claims.get("id", Number.class).longValue(),
+                claims.get("name", String.class),
+                claims.getSubject(),
+                null,
+                role,
+                Collections.singletonList(authority)
+        );
+    }
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
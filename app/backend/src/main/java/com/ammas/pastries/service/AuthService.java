@@ -2,12 +2,17 @@ package com.ammas.pastries.service;
 
 import com.ammas.pastries.dto.*;
 import com.ammas.pastries.entity.User;
+import com.ammas.pastries.exception.ServiceUnavailableException;
+import com.ammas.pastries.exception.TooManyRequestsException;
 import com.ammas.pastries.repository.UserRepository;
+import com.ammas.pastries.security.AuthRateLimiter;
 import com.ammas.pastries.security.JwtUtils;
+import com.ammas.pastries.security.SecurityEventLog;
 import com.ammas.pastries.security.UserDetailsImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,8 +35,19 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+    
+    @Autowired
+    private SecurityEventLog securityEventLog;
+    
     public AuthResponse authenticateUser(LoginRequest loginRequest) {
-        log.info("Authenticating user: {}", loginRequest.getEmail());
+        long retryAfter = authRateLimiter.checkAccount(loginRequest.getEmail());
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many login attempts for this account, please retry later", retryAfter);
+        }
+        
+        log.debug("Authenticating user: {}", loginRequest.getEmail());
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
@@ -44,6 +60,17 @@ public class AuthService {
             
             log.info("User authenticated successfully: {} (id: {})", user.getEmail(), user.getId());
             return new AuthResponse(jwt, user);
+        } catch (BadCredentialsException e) {
+            authRateLimiter.recordFailedLogin(loginRequest.getEmail());
+            // Expected under credential stuffing; a stack trace per attempt only adds log I/O
+            securityEventLog.warn("login.failed", "Authentication failed for email {}: {}",
+                    loginRequest.getEmail(), e.getMessage());
+            throw e;
+        } catch (ServiceUnavailableException e) {
+            // The hashing queue is full; the client gets a 503 and the spike is already on a gauge
+            securityEventLog.warn("login.rejected", "Authentication rejected for email {}: {}",
+                    loginRequest.getEmail(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Authentication failed for email {}: {}", loginRequest.getEmail(), e.getMessage(), e);
             throw e;
@@ -63,9 +90,10 @@ public class AuthService {
         
         userRepository.save(user);
         
-        // Authenticate the new user
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(registerRequest.getEmail(), registerRequest.getPassword()));
+        // The password was just hashed from this request, so skip a second BCrypt pass to verify it
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
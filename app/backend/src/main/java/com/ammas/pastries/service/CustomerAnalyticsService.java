@@ -0,0 +1,195 @@
+package com.ammas.pastries.service;
+
+import com.ammas.pastries.dto.CustomerAnalyticsDTO;
+import com.ammas.pastries.entity.CustomerSketch;
+import com.ammas.pastries.repository.CustomerSketchRepository;
+import com.ammas.pastries.repository.OrderRepository;
+import com.ammas.pastries.resilience.Bulkhead;
+import com.ammas.pastries.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Approximate distinct-customer counts backed by one HyperLogLog sketch per day.
+ *
+ * Purchases are folded into in-memory sketches and flushed to the customer_sketches
+ * table on a fixed delay and on shutdown. A flush merges into the stored row under a
+ * row lock, so several nodes can flush the same day safely. Estimates carry the
+ * sketch's relative standard error, see {@link HyperLogLog#RELATIVE_STANDARD_ERROR}.
+ */
+@Slf4j
+@Service
+public class CustomerAnalyticsService {
+    
+    @Autowired
+    private CustomerSketchRepository sketchRepository;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${analytics.customer-sketch.rebuild-max-days:366}")
+    private long rebuildMaxDays;
+    
+    private final Map<LocalDate, DailySketch> sketches = new ConcurrentHashMap<>();
+    
+    public void recordPurchase(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only count orders that actually commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(LocalDate.now(), userId);
+                }
+            });
+        } else {
+            offer(LocalDate.now(), userId);
+        }
+    }
+    
+    public long countDistinctCustomers(LocalDate from, LocalDate to) {
+        return loadRange(from, to).estimate();
+    }
+    
+    /**
+     * Distinct customers in [from, to] plus how many of them also bought in the
+     * preceding period of the same length. The repeat count is derived by
+     * inclusion-exclusion (|A| + |B| - |A u B|), so its absolute error is that of
+     * the union estimate rather than of the (usually smaller) intersection.
+     */
+    public CustomerAnalyticsDTO getCustomerAnalytics(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range: " + from + " is after " + to);
+        }
+        
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        LocalDate previousFrom = from.minusDays(days);
+        
+        HyperLogLog current = loadRange(from, to);
+        HyperLogLog previous = loadRange(previousFrom, from.minusDays(1));
+        
+        long currentCount = current.estimate();
+        long previousCount = previous.estimate();
+        previous.merge(current);
+        long unionCount = previous.estimate();
+        long repeatCount = Math.max(0, Math.min(currentCount, currentCount + previousCount - unionCount));
+        
+        return CustomerAnalyticsDTO.builder()
+                .from(from)
+                .to(to)
+                .distinctCustomers(currentCount)
+                .repeatCustomers(repeatCount)
+                .relativeStandardError(HyperLogLog.RELATIVE_STANDARD_ERROR)
+                .build();
+    }
+    
+    /**
+     * Rebuilds the stored sketches for [from, to] from the orders table, e.g. to
+     * backfill days that predate the sketches. Meant to run on the reporting bulkhead:
+     * each day's orders are scanned there, and only the sketch row is written through
+     * the storefront pool.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range: " + from + " is after " + to);
+        }
+        if (to.toEpochDay() - from.toEpochDay() + 1 > rebuildMaxDays) {
+            throw new RuntimeException("Customer sketches can be rebuilt for at most " + rebuildMaxDays + " days at a time");
+        }
+        
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate sketchDate = day;
+            HyperLogLog sketch = new HyperLogLog();
+            orderRepository.findDistinctUserIdsByCreatedAtBetween(
+                    sketchDate.atStartOfDay(), sketchDate.plusDays(1).atStartOfDay())
+                    .forEach(sketch::offer);
+            
+            Bulkhead.runInStorefront(() -> transactionTemplate.executeWithoutResult(status -> {
+                CustomerSketch row = sketchRepository.findForUpdate(sketchDate)
+                        .orElseGet(() -> new CustomerSketch(sketchDate, null, null));
+                row.setRegisters(sketch.toBytes());
+                sketchRepository.save(row);
+            }));
+        }
+        log.info("Rebuilt customer sketches from {} to {}", from, to);
+    }
+    
+    @Scheduled(fixedDelayString = "${analytics.customer-sketch.flush-interval-ms:60000}")
+    public void flush() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        
+        sketches.forEach((day, daily) -> {
+            if (daily.dirty.getAndSet(false)) {
+                try {
+                    persist(day, daily.sketch);
+                } catch (RuntimeException e) {
+                    daily.dirty.set(true);
+                    log.warn("Failed to flush customer sketch for {}: {}", day, e.getMessage());
+                }
+            }
+            // Older days no longer receive purchases; keep today and yesterday for late commits
+            if (day.isBefore(yesterday) && !daily.dirty.get()) {
+                sketches.remove(day, daily);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    private void offer(LocalDate day, Long userId) {
+        DailySketch daily = sketches.computeIfAbsent(day, d -> new DailySketch());
+        daily.sketch.offer(userId);
+        daily.dirty.set(true);
+    }
+    
+    private void persist(LocalDate day, HyperLogLog sketch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            HyperLogLog merged = HyperLogLog.fromBytes(sketch.toBytes());
+            CustomerSketch row = sketchRepository.findForUpdate(day)
+                    .orElseGet(() -> new CustomerSketch(day, null, null));
+            if (row.getRegisters() != null) {
+                merged.merge(HyperLogLog.fromBytes(row.getRegisters()));
+            }
+            row.setRegisters(merged.toBytes());
+            sketchRepository.save(row);
+        });
+    }
+    
+    private HyperLogLog loadRange(LocalDate from, LocalDate to) {
+        HyperLogLog result = new HyperLogLog();
+        List<CustomerSketch> stored = sketchRepository.findBySketchDateBetween(from, to);
+        for (CustomerSketch row : stored) {
+            result.merge(HyperLogLog.fromBytes(row.getRegisters()));
+        }
+        // Unflushed purchases are only in memory; merging is idempotent so overlap is harmless
+        sketches.forEach((day, daily) -> {
+            if (!day.isBefore(from) && !day.isAfter(to)) {
+                result.merge(daily.sketch);
+            }
+        });
+        return result;
+    }
+    
+    private static class DailySketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+    }
+}
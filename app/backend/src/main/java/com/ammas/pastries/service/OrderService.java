@@ -1,5 +1,7 @@
 package com.ammas.pastries.service;
 
+import com.ammas.pastries.cache.CacheVersionService;
+import com.ammas.pastries.datasource.ReplicaRouter;
 import com.ammas.pastries.dto.OrderDTO;
 import com.ammas.pastries.dto.DashboardStatsDTO;
 import com.ammas.pastries.dto.OrderRequest;
@@ -10,13 +12,22 @@ import com.ammas.pastries.entity.User;
 import com.ammas.pastries.repository.OrderRepository;
 import com.ammas.pastries.repository.ProductRepository;
 import com.ammas.pastries.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,18 +42,46 @@ public class OrderService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CustomerAnalyticsService customerAnalyticsService;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    @Autowired
+    private CacheVersionService cacheVersionService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer loadTimer;
+    private Timer stockTimer;
+    private Timer persistTimer;
+    private Timer mapTimer;
+    
+    @PostConstruct
+    public void init() {
+        loadTimer = phaseTimer("load");
+        stockTimer = phaseTimer("stock");
+        persistTimer = phaseTimer("persist");
+        mapTimer = phaseTimer("map");
+    }
+    
+    @Transactional(readOnly = true)
     public List<OrderDTO> getUserOrders(Long userId) {
         return orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
                 .map(OrderDTO::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getAllOrders() {
         return orderRepository.findAllByOrderByCreatedAtDesc().stream()
                 .map(OrderDTO::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
@@ -51,6 +90,8 @@ public class OrderService {
     
     @Transactional
     public OrderDTO createOrder(Long userId, OrderRequest request) {
+        long start = System.nanoTime();
+        
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
@@ -63,11 +104,27 @@ public class OrderService {
         order.setDeliveryNotes(request.getDeliveryNotes());
         order.setStatus(Order.OrderStatus.PENDING);
         
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        // Locked read straight from the database: never checks stock against a cached copy,
+        // and concurrent checkouts of the same product cannot oversell it. All rows are locked
+        // in one statement in id order, so two baskets listing the same products in a
+        // different order cannot deadlock.
+        Set<Long> productIds = new TreeSet<>();
+        for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+            productIds.add(itemRequest.getProductId());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(productIds)) {
+            products.put(product.getId(), product);
+        }
+        long loadNanos = System.nanoTime() - start;
+        long stockNanos = 0;
         
         for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + itemRequest.getProductId()));
+            long stockStart = System.nanoTime();
+            Product product = products.get(itemRequest.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + itemRequest.getProductId());
+            }
             
             if (product.getStock() < itemRequest.getQuantity()) {
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
@@ -84,13 +141,25 @@ public class OrderService {
             orderItem.setPrice(product.getPrice());
             
             order.getOrderItems().add(orderItem);
-            totalPrice = totalPrice.add(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            stockNanos += System.nanoTime() - stockStart;
         }
         
-        order.setTotalPrice(totalPrice);
-        Order savedOrder = orderRepository.save(order);
+        long persistStart = System.nanoTime();
+        order.setTotalPrice(calculateTotal(order.getOrderItems()));
+        // Flushed here so the item inserts and stock updates count towards persist, not commit
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        customerAnalyticsService.recordPurchase(userId);
+        replicaRouter.recordWrite(userId);
+        cacheVersionService.markChanged(CacheVersionService.PRODUCTS);
+        
+        long mapStart = System.nanoTime();
+        OrderDTO dto = OrderDTO.fromEntity(savedOrder);
         
-        return OrderDTO.fromEntity(savedOrder);
+        loadTimer.record(loadNanos, TimeUnit.NANOSECONDS);
+        stockTimer.record(stockNanos, TimeUnit.NANOSECONDS);
+        persistTimer.record(mapStart - persistStart, TimeUnit.NANOSECONDS);
+        mapTimer.record(System.nanoTime() - mapStart, TimeUnit.NANOSECONDS);
+        return dto;
     }
     
     @Transactional
@@ -104,8 +173,25 @@ public class OrderService {
         return OrderDTO.fromEntity(updatedOrder);
     }
     
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("orders.create.phase")
+                .description("Checkout time by phase, for successful orders")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+    
+    public static BigDecimal calculateTotal(List<OrderItem> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+    
+    @Transactional(readOnly = true)
     public DashboardStatsDTO getDashboardStats() {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        LocalDate today = LocalDate.now();
         
         Long totalOrders = orderRepository.count();
         BigDecimal totalRevenue = orderRepository.sumTotalPriceByCreatedAtAfter(thirtyDaysAgo);
@@ -135,6 +221,9 @@ public class OrderService {
                 .pendingOrders(pendingOrders)
                 .ordersByStatus(ordersByStatus)
                 .salesByDate(salesByDate)
+                .activeCustomersToday(customerAnalyticsService.countDistinctCustomers(today, today))
+                .activeCustomers7Days(customerAnalyticsService.countDistinctCustomers(today.minusDays(6), today))
+                .activeCustomers30Days(customerAnalyticsService.countDistinctCustomers(today.minusDays(29), today))
                 .build();
     }
 }
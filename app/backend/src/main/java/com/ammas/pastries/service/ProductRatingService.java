@@ -0,0 +1,252 @@
+package com.ammas.pastries.service;
+
+import com.ammas.pastries.cache.CacheVersionService;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.RatingHistogram;
+import com.ammas.pastries.event.ProductRatingsRefreshedEvent;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the running rating aggregate (rating_sum, review_count, rating) and the
+ * 1-5 star histogram on products.
+ *
+ * By default review writes apply deltas with a single atomic UPDATE on the product row
+ * and never read other reviews. With reviews.rating-write-behind=true they only mark the
+ * product dirty; a scheduled worker then recomputes every dirty product once per interval
+ * in one transaction, so a burst of reviews on the same cake rewrites its row once.
+ *
+ * A reconciliation pass recounts from the reviews table and repairs any product whose
+ * stored aggregate has drifted.
+ */
+@Slf4j
+@Service
+public class ProductRatingService {
+    
+    private static final BigDecimal DEFAULT_RATING = BigDecimal.valueOf(5.0);
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ReviewRepository reviewRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CacheVersionService cacheVersionService;
+    
+    @Value("${reviews.rating-write-behind:false}")
+    private boolean writeBehind;
+    
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    
+    public void reviewAdded(Long productId, int rating) {
+        applyChange(productId, rating, 0);
+    }
+    
+    public void reviewUpdated(Long productId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            applyChange(productId, newRating, oldRating);
+        }
+    }
+    
+    public void reviewRemoved(Long productId, int rating) {
+        applyChange(productId, 0, rating);
+    }
+    
+    @Scheduled(fixedDelayString = "${reviews.rating-write-behind-interval-ms:2000}")
+    public void flushDirtyProducts() {
+        if (dirtyProducts.isEmpty()) {
+            return;
+        }
+        
+        Set<Long> batch = new HashSet<>();
+        for (Long productId : dirtyProducts) {
+            if (dirtyProducts.remove(productId)) {
+                batch.add(productId);
+            }
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> recompute(batch));
+        } catch (RuntimeException e) {
+            // Retry on the next pass; reviews committed meanwhile are already marked again
+            dirtyProducts.addAll(batch);
+            log.warn("Failed to recompute ratings for {} product(s): {}", batch.size(), e.getMessage());
+            return;
+        }
+        
+        eventPublisher.publishEvent(new ProductRatingsRefreshedEvent(batch));
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirtyProducts();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+    
+    @Scheduled(cron = "${reviews.rating-reconcile.cron:0 30 3 * * *}")
+    public int reconcile() {
+        Map<Long, RatingHistogram> actual = new HashMap<>();
+        for (Object[] row : reviewRepository.countByRatingForAllProducts()) {
+            RatingHistogram histogram = actual.computeIfAbsent((Long) row[0], id -> new RatingHistogram());
+            set(histogram, (Integer) row[1], ((Long) row[2]).intValue());
+        }
+        
+        int repaired = 0;
+        for (Object[] row : productRepository.findRatingAggregates()) {
+            Long productId = (Long) row[0];
+            RatingHistogram expected = actual.getOrDefault(productId, new RatingHistogram());
+            Integer storedCount = (Integer) row[1];
+            Long storedSum = (Long) row[2];
+            
+            if (storedCount == null || storedCount != countOf(expected)
+                    || storedSum == null || storedSum != sumOf(expected)
+                    || !expected.equals(row[3])) {
+                repair(productId);
+                repaired++;
+            }
+        }
+        
+        if (repaired > 0) {
+            log.info("Rating reconciliation repaired {} product(s)", repaired);
+        }
+        return repaired;
+    }
+    
+    private void applyChange(Long productId, int addedRating, int removedRating) {
+        if (writeBehind) {
+            if (addedRating > 0 && removedRating == 0 && !productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found");
+            }
+            markDirtyAfterCommit(productId);
+            return;
+        }
+        
+        int countDelta = (addedRating > 0 ? 1 : 0) - (removedRating > 0 ? 1 : 0);
+        int updated = productRepository.applyRatingChange(
+                productId, addedRating, removedRating, addedRating - removedRating, countDelta);
+        if (updated == 0) {
+            throw new RuntimeException("Product not found");
+        }
+        cacheVersionService.markChanged(CacheVersionService.PRODUCTS);
+    }
+    
+    // Marking after commit guarantees the worker's recount can see the review
+    private void markDirtyAfterCommit(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyProducts.add(productId);
+                }
+            });
+        } else {
+            dirtyProducts.add(productId);
+        }
+    }
+    
+    // Like repair: the rows are locked (in id order) before the recount, so the save cannot
+    // overwrite a concurrent stock, price or rating change with a stale copy
+    private void recompute(Set<Long> productIds) {
+        List<Product> products = productRepository.findAllByIdForUpdate(productIds);
+        
+        Map<Long, RatingHistogram> histograms = new HashMap<>();
+        for (Object[] row : reviewRepository.countByRatingForProducts(productIds)) {
+            RatingHistogram histogram = histograms.computeIfAbsent((Long) row[0], id -> new RatingHistogram());
+            set(histogram, (Integer) row[1], ((Long) row[2]).intValue());
+        }
+        
+        for (Product product : products) {
+            applyHistogram(product, histograms.getOrDefault(product.getId(), new RatingHistogram()));
+        }
+    }
+    
+    // Recounts under the product row lock so concurrent deltas are neither lost nor double-applied
+    private void repair(Long productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.findByIdForUpdate(productId).ifPresent(product -> {
+                RatingHistogram histogram = new RatingHistogram();
+                for (Object[] row : reviewRepository.countByRatingForProduct(productId)) {
+                    set(histogram, (Integer) row[0], ((Long) row[1]).intValue());
+                }
+                applyHistogram(product, histogram);
+                cacheVersionService.markChanged(CacheVersionService.PRODUCTS);
+            });
+        });
+    }
+    
+    private void applyHistogram(Product product, RatingHistogram histogram) {
+        long count = countOf(histogram);
+        long sum = sumOf(histogram);
+        product.setRatingHistogram(histogram);
+        product.setReviewCount((int) count);
+        product.setRatingSum(sum);
+        product.setRating(averageOf(sum, count));
+        productRepository.save(product);
+    }
+    
+    private void set(RatingHistogram histogram, int rating, int count) {
+        switch (rating) {
+            case 1 -> histogram.setOneStar(count);
+            case 2 -> histogram.setTwoStar(count);
+            case 3 -> histogram.setThreeStar(count);
+            case 4 -> histogram.setFourStar(count);
+            case 5 -> histogram.setFiveStar(count);
+            default -> log.warn("Ignoring out-of-range rating {}", rating);
+        }
+    }
+    
+    private long countOf(RatingHistogram histogram) {
+        long count = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            count += histogram.get(rating);
+        }
+        return count;
+    }
+    
+    private long sumOf(RatingHistogram histogram) {
+        long sum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            sum += (long) rating * histogram.get(rating);
+        }
+        return sum;
+    }
+    
+    private BigDecimal averageOf(long sum, long count) {
+        if (count == 0) {
+            return DEFAULT_RATING;
+        }
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 1, RoundingMode.HALF_UP);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ammas.pastries.service;
 
+import com.ammas.pastries.cache.CacheVersionService;
 import com.ammas.pastries.dto.ProductDTO;
 import com.ammas.pastries.dto.ProductRequest;
 import com.ammas.pastries.entity.Product;
@@ -21,12 +22,17 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private CacheVersionService cacheVersionService;
+    
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
         return productRepository.findAll().stream()
                 .map(ProductDTO::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public Page<ProductDTO> getProducts(String category, String search, String sortBy, String sortOrder, int page, int size) {
         Sort sort = Sort.by(sortOrder.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC, 
                             sortBy.equals("price") ? "price" : "name");
@@ -46,24 +52,30 @@ public class ProductService {
         return products.map(ProductDTO::fromEntity);
     }
     
+    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return ProductDTO.fromEntity(product);
+        ProductDTO dto = ProductDTO.fromEntity(product);
+        dto.setRatingHistogram(product.getRatingHistogram().toMap());
+        return dto;
     }
     
+    @Transactional(readOnly = true)
     public List<ProductDTO> getFeaturedProducts() {
         return productRepository.findByFeaturedTrue().stream()
                 .map(ProductDTO::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProductsByCategory(String category) {
         return productRepository.findByCategory(category).stream()
                 .map(ProductDTO::fromEntity)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
         return productRepository.findAllCategories();
     }
@@ -80,6 +92,7 @@ public class ProductService {
         product.setFeatured(request.getFeatured());
         
         Product savedProduct = productRepository.save(product);
+        cacheVersionService.markChanged(CacheVersionService.CATALOG);
         return ProductDTO.fromEntity(savedProduct);
     }
     
@@ -97,6 +110,7 @@ public class ProductService {
         product.setFeatured(request.getFeatured());
         
         Product updatedProduct = productRepository.save(product);
+        cacheVersionService.markChanged(CacheVersionService.CATALOG);
         return ProductDTO.fromEntity(updatedProduct);
     }
     
@@ -106,5 +120,6 @@ public class ProductService {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        cacheVersionService.markChanged(CacheVersionService.CATALOG);
     }
 }
@@ -1,23 +1,30 @@
 package com.ammas.pastries.service;
 
+import com.ammas.pastries.datasource.ReplicaRouter;
 import com.ammas.pastries.dto.ReviewDTO;
+import com.ammas.pastries.dto.ReviewPageDTO;
 import com.ammas.pastries.dto.ReviewRequest;
-import com.ammas.pastries.entity.Product;
 import com.ammas.pastries.entity.Review;
-import com.ammas.pastries.entity.User;
 import com.ammas.pastries.repository.ProductRepository;
 import com.ammas.pastries.repository.ReviewRepository;
 import com.ammas.pastries.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ReviewService {
     
+    private static final int MAX_PAGE_SIZE = 50;
+    
     @Autowired
     private ReviewRepository reviewRepository;
     
@@ -27,35 +34,69 @@ public class ReviewService {
     @Autowired
     private UserRepository userRepository;
     
-    public List<ReviewDTO> getProductReviews(Long productId) {
-        return reviewRepository.findByProductIdOrderByCreatedAtDesc(productId).stream()
-                .map(ReviewDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Autowired
+    private ProductRatingService productRatingService;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    @Transactional(readOnly = true)
+    public ReviewPageDTO getProductReviews(Long productId, String sort, String cursor, int size) {
+        String order = sort == null ? "newest" : sort.toLowerCase();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        
+        // Without a cursor start just past every existing review: created tomorrow, rating out of range
+        Cursor position = cursor == null || cursor.isEmpty() ? null : Cursor.decode(cursor);
+        LocalDateTime createdAt = position != null ? position.createdAt : LocalDateTime.now().plusDays(1);
+        Long id = position != null ? position.id : Long.MAX_VALUE;
+        
+        List<ReviewDTO> rows = switch (order) {
+            case "newest" -> reviewRepository.findNewestPage(productId, createdAt, id, limit);
+            case "highest" -> reviewRepository.findHighestRatedPage(
+                    productId, position != null ? position.rating : 6, createdAt, id, limit);
+            case "lowest" -> reviewRepository.findLowestRatedPage(
+                    productId, position != null ? position.rating : 0, createdAt, id, limit);
+            default -> throw new RuntimeException("Unsupported review sort: " + sort);
+        };
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<ReviewDTO> content = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewDTO last = content.get(content.size() - 1);
+            nextCursor = new Cursor(last.getRating(), last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return ReviewPageDTO.builder()
+                .content(content)
+                .sort(order)
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
     
     @Transactional
     public ReviewDTO createReview(Long userId, ReviewRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        // Check if user already reviewed this product
-        if (reviewRepository.findByUserIdAndProductId(userId, request.getProductId()).isPresent()) {
-            throw new RuntimeException("You have already reviewed this product");
-        }
+        // Fails with "Product not found" when no row was updated, before the review is inserted
+        productRatingService.reviewAdded(request.getProductId(), request.getRating());
         
         Review review = new Review();
-        review.setUser(user);
-        review.setProduct(product);
+        review.setUser(userRepository.getReferenceById(userId));
+        review.setProduct(productRepository.getReferenceById(request.getProductId()));
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         
-        Review savedReview = reviewRepository.save(review);
-        
-        // Update product rating
-        updateProductRating(product);
+        Review savedReview;
+        try {
+            // The unique (user_id, product_id) key rejects a second review from the same user
+            savedReview = reviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("You have already reviewed this product");
+        }
+        replicaRouter.recordWrite(userId);
         
         return ReviewDTO.fromEntity(savedReview);
     }
@@ -69,13 +110,15 @@ public class ReviewService {
             throw new RuntimeException("You can only update your own reviews");
         }
         
+        int oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         
         Review updatedReview = reviewRepository.save(review);
         
         // Update product rating
-        updateProductRating(review.getProduct());
+        productRatingService.reviewUpdated(review.getProduct().getId(), oldRating, request.getRating());
+        replicaRouter.recordWrite(userId);
         
         return ReviewDTO.fromEntity(updatedReview);
     }
@@ -89,20 +132,30 @@ public class ReviewService {
             throw new RuntimeException("You can only delete your own reviews");
         }
         
-        Product product = review.getProduct();
+        Long productId = review.getProduct().getId();
         reviewRepository.delete(review);
         
         // Update product rating
-        updateProductRating(product);
+        productRatingService.reviewRemoved(productId, review.getRating());
+        replicaRouter.recordWrite(userId);
     }
     
-    private void updateProductRating(Product product) {
-        Double avgRating = reviewRepository.calculateAverageRatingByProductId(product.getId());
-        Long reviewCount = reviewRepository.countByProductId(product.getId());
+    // Opaque keyset position: rating, createdAt and id of the last review on the previous page
+    private record Cursor(Integer rating, LocalDateTime createdAt, Long id) {
         
-        product.setRating(avgRating != null ? java.math.BigDecimal.valueOf(avgRating) : java.math.BigDecimal.valueOf(5.0));
-        product.setReviewCount(reviewCount != null ? reviewCount.intValue() : 0);
+        String encode() {
+            String raw = rating + "|" + createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
         
-        productRepository.save(product);
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                return new Cursor(Integer.valueOf(parts[0]), LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid review cursor");
+            }
+        }
     }
 }
@@ -0,0 +1,108 @@
+package com.ammas.pastries.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * HyperLogLog cardinality sketch over long ids.
+ *
+ * With precision 12 the sketch keeps 4096 one-byte registers (4 KB) and has a
+ * relative standard error of 1.04 / sqrt(4096), about 1.6%. Roughly 95% of
+ * estimates fall within +/-3.3% of the true count. Merging is lossless, so a
+ * range of days can be answered by taking the register-wise max of the daily
+ * sketches.
+ *
+ * Guarded by a ReentrantLock rather than synchronized: offer() runs on request
+ * threads after every checkout, and a monitor would pin a virtual thread's carrier.
+ */
+public class HyperLogLog {
+    
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTER_COUNT);
+    
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+    
+    private final byte[] registers;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public HyperLogLog() {
+        this.registers = new byte[REGISTER_COUNT];
+    }
+    
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+    
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != REGISTER_COUNT) {
+            throw new IllegalArgumentException("Invalid sketch size: " + (bytes == null ? 0 : bytes.length));
+        }
+        return new HyperLogLog(Arrays.copyOf(bytes, REGISTER_COUNT));
+    }
+    
+    public void offer(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        lock.lock();
+        try {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void merge(HyperLogLog other) {
+        byte[] source = other.toBytes();
+        lock.lock();
+        try {
+            for (int i = 0; i < REGISTER_COUNT; i++) {
+                if (source[i] > registers[i]) {
+                    registers[i] = source[i];
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : toBytes()) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        
+        // Small-range correction: linear counting is more accurate while registers are still empty
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        
+        return Math.round(estimate);
+    }
+    
+    public byte[] toBytes() {
+        lock.lock();
+        try {
+            return Arrays.copyOf(registers, REGISTER_COUNT);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // SplitMix64 finalizer, spreads sequential user ids over the whole 64-bit range
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ammas.pastries.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * The whole state fits in one AtomicLong: the upper 24 bits hold the available tokens in
+ * thousandths, the lower 40 bits the time of the last refill in milliseconds since the bucket
+ * was created (about 34 years; epoch milliseconds would overflow 40 bits in 2039). Acquiring
+ * a token is a single compare-and-set loop with no allocation, which keeps the rejection
+ * path cheap under attack. Capacity is limited to 16,000 tokens.
+ */
+public class TokenBucket {
+    
+    private static final int TIME_BITS = 40;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long SCALE = 1000;
+    private static final long MAX_CAPACITY = 16_000;
+    
+    private final long capacity;
+    private final double refillPerMs;
+    private final long epochMs;
+    private final AtomicLong state;
+    
+    /**
+     * @param capacity      maximum burst, in tokens
+     * @param refillPerMinute tokens added back per minute
+     */
+    public TokenBucket(long capacity, double refillPerMinute, long nowMs) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity * SCALE;
+        this.refillPerMs = refillPerMinute * SCALE / 60_000.0;
+        this.epochMs = nowMs;
+        this.state = new AtomicLong(pack(this.capacity, 0));
+    }
+    
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the milliseconds until one will be
+     */
+    public long tryAcquire(long nowMs) {
+        while (true) {
+            long current = state.get();
+            long tokens = current >>> TIME_BITS;
+            long last = current & TIME_MASK;
+            long now = elapsedSinceEpoch(nowMs);
+            
+            long refilled = refill(tokens, last, now);
+            if (refilled < SCALE) {
+                return waitFor(refilled);
+            }
+            
+            // Keep the old stamp while a refill rounds to nothing, so fractions are not lost; a
+            // full bucket has nothing to carry and must restart from now, or the idle time counts
+            long stamp = refilled == tokens && refilled < capacity ? last : now;
+            if (state.compareAndSet(current, pack(refilled - SCALE, stamp))) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Checks for a token without taking it.
+     *
+     * @return 0 if a token is available, otherwise the milliseconds until one will be
+     */
+    public long timeUntilAvailable(long nowMs) {
+        long current = state.get();
+        long refilled = refill(current >>> TIME_BITS, current & TIME_MASK, elapsedSinceEpoch(nowMs));
+        return refilled < SCALE ? waitFor(refilled) : 0;
+    }
+    
+    private long elapsedSinceEpoch(long nowMs) {
+        return Math.max(0, nowMs - epochMs) & TIME_MASK;
+    }
+    
+    private long refill(long tokens, long last, long now) {
+        long elapsed = Math.max(0, now - last);
+        return Math.min(capacity, tokens + (long) (elapsed * refillPerMs));
+    }
+    
+    private long waitFor(long tokens) {
+        return refillPerMs > 0 ? (long) Math.ceil((SCALE - tokens) / refillPerMs) : Long.MAX_VALUE;
+    }
+    
+    private static long pack(long tokens, long timeMs) {
+        return (tokens << TIME_BITS) | (timeMs & TIME_MASK);
+    }
+}
@@ -0,0 +1,197 @@
+package com.ammas.pastries.warmup;
+
+import com.ammas.pastries.dto.ProductDTO;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.security.JwtUtils;
+import com.ammas.pastries.security.UserDetailsImpl;
+import com.ammas.pastries.service.ProductService;
+import com.ammas.pastries.service.ReviewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exercises the storefront read paths in-process before the instance reports ready. Runners
+ * finish before Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC, so
+ * /actuator/health/readiness stays OUT_OF_SERVICE until warm-up is done.
+ *
+ * Fills each connection pool up to its minimum idle size, then repeats catalog pages, search,
+ * product detail, review pages and JWT issue/verify on a few threads, serializing results
+ * with the application's ObjectMapper. This gets the hot paths JIT-compiled, Hibernate query
+ * plans built and the second-level and query caches populated. Bounded by
+ * warmup.max-duration-seconds; failures are counted and never block startup.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+    
+    private static final String[] SEARCH_TERMS = {"chocolate", "cake", "cream", "fruit"};
+    private static final String[] REVIEW_SORTS = {"newest", "highest", "lowest"};
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private ReviewService reviewService;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private List<HikariDataSource> dataSources;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${warmup.iterations:300}")
+    private int iterations;
+    
+    @Value("${warmup.threads:4}")
+    private int threads;
+    
+    @Value("${warmup.max-duration-seconds:45}")
+    private long maxDurationSeconds;
+    
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxDurationSeconds);
+        
+        dataSources.forEach(this::fillPool);
+        
+        List<String> categories;
+        List<Long> productIds;
+        try {
+            categories = productService.getAllCategories();
+            productIds = productService.getProducts(null, null, "name", "asc", 0, 12).getContent().stream()
+                    .map(ProductDTO::getId)
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up skipped, catalog unavailable: {}", e.getMessage());
+            return;
+        }
+        
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong failures = new AtomicLong();
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                int iteration;
+                while ((iteration = next.getAndIncrement()) < iterations && System.nanoTime() < deadline) {
+                    try {
+                        iterate(iteration, categories, productIds);
+                        completed.incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        firstFailure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(maxDurationSeconds + 5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+        
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("application.warmup")
+                .description("Warm-up run before the instance reports ready")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms: {} of {} iterations, {} failed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), completed.get(), iterations, failures.get());
+        if (firstFailure.get() != null) {
+            log.warn("First warm-up failure: {}", firstFailure.get().toString());
+        }
+    }
+    
+    private void iterate(int iteration, List<String> categories, List<Long> productIds) throws Exception {
+        serialize(productService.getAllCategories());
+        serialize(productService.getFeaturedProducts());
+        serialize(productService.getProducts(null, null, iteration % 2 == 0 ? "name" : "price",
+                iteration % 3 == 0 ? "desc" : "asc", iteration % 3, 12));
+        serialize(productService.getProducts(null, SEARCH_TERMS[iteration % SEARCH_TERMS.length], "name", "asc", 0, 12));
+        if (!categories.isEmpty()) {
+            String category = categories.get(iteration % categories.size());
+            serialize(productService.getProducts(category, null, "price", "asc", 0, 12));
+            serialize(productService.getProducts(category, SEARCH_TERMS[iteration % SEARCH_TERMS.length], "name", "asc", 0, 12));
+            serialize(productService.getProductsByCategory(category));
+        }
+        if (!productIds.isEmpty()) {
+            Long productId = productIds.get(iteration % productIds.size());
+            serialize(productService.getProductById(productId));
+            serialize(reviewService.getProductReviews(productId, REVIEW_SORTS[iteration % REVIEW_SORTS.length], null, 10));
+        }
+        
+        // A distinct subject per iteration, so each token pays for the full HMAC check
+        User user = new User();
+        user.setId(-1L - iteration);
+        user.setEmail("warmup-" + iteration + "@ammaspastries.invalid");
+        user.setName("Warm-up");
+        user.setPassword("");
+        user.setRole(User.Role.USER);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        String token = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        jwtUtils.verifyJwtToken(token);
+    }
+    
+    private void serialize(Object value) throws Exception {
+        objectMapper.writeValueAsBytes(value);
+    }
+    
+    // Holding minimum-idle connections at once makes Hikari open them now, not on the first requests
+    private void fillPool(HikariDataSource dataSource) {
+        int target = Math.min(Math.max(dataSource.getMinimumIdle(), 1), dataSource.getMaximumPoolSize());
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < target; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Could not open {} connections for pool {}: {}", target, dataSource.getPoolName(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // Returned to the pool either way
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+-- Schema additions for rating aggregates, review pagination, customer sketches, token
+-- revocation, replica lag and cache coherence. Runs on fresh databases after V1 and on
+-- databases baselined at 1.1.
+
+-- Running rating sum and star histogram per product
+ALTER TABLE products
+    ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0 AFTER review_count,
+    ADD COLUMN rating_1_count INT NOT NULL DEFAULT 0 AFTER rating_sum,
+    ADD COLUMN rating_2_count INT NOT NULL DEFAULT 0 AFTER rating_1_count,
+    ADD COLUMN rating_3_count INT NOT NULL DEFAULT 0 AFTER rating_2_count,
+    ADD COLUMN rating_4_count INT NOT NULL DEFAULT 0 AFTER rating_3_count,
+    ADD COLUMN rating_5_count INT NOT NULL DEFAULT 0 AFTER rating_4_count;
+
+-- Keyset pagination of a product's reviews, newest first or by rating
+ALTER TABLE reviews
+    ADD INDEX idx_product_created (product_id, created_at, id),
+    ADD INDEX idx_product_rating_created (product_id, rating, created_at, id),
+    ADD INDEX idx_product_rating_asc_created (product_id, rating ASC, created_at DESC, id DESC);
+
+-- idx_product_id is a prefix of the indexes above; databases created by Hibernate never had it
+SET @drop_product_index = (
+    SELECT IF(COUNT(*) > 0, 'ALTER TABLE reviews DROP INDEX idx_product_id', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'reviews' AND index_name = 'idx_product_id'
+);
+PREPARE drop_product_index FROM @drop_product_index;
+EXECUTE drop_product_index;
+DEALLOCATE PREPARE drop_product_index;
+
+-- Customer Sketches Table (daily HyperLogLog of distinct buyers)
+CREATE TABLE customer_sketches (
+    sketch_date DATE PRIMARY KEY,
+    registers BLOB NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Token Revocations Table (tokens issued at or before revoked_at are rejected)
+CREATE TABLE token_revocations (
+    user_id BIGINT PRIMARY KEY,
+    revoked_at DATETIME(6) NOT NULL,
+    reason VARCHAR(100),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_revoked_at (revoked_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Replica Heartbeat Table (stamped on the primary, read on the replica to measure lag)
+CREATE TABLE replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Cache Versions Table (bumped on writes, polled by every node to evict stale cache regions)
+CREATE TABLE cache_versions (
+    region VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Derive rating aggregates and star histograms from the existing reviews
+UPDATE products p
+LEFT JOIN (
+    SELECT product_id,
+           COUNT(*) AS total_count,
+           SUM(rating) AS total_rating,
+           SUM(rating = 1) AS r1, SUM(rating = 2) AS r2, SUM(rating = 3) AS r3,
+           SUM(rating = 4) AS r4, SUM(rating = 5) AS r5
+    FROM reviews
+    GROUP BY product_id
+) r ON r.product_id = p.id
+SET p.review_count = COALESCE(r.total_count, 0),
+    p.rating_sum = COALESCE(r.total_rating, 0),
+    p.rating = IF(r.total_count > 0, ROUND(r.total_rating / r.total_count, 1), 5.0),
+    p.rating_1_count = COALESCE(r.r1, 0),
+    p.rating_2_count = COALESCE(r.r2, 0),
+    p.rating_3_count = COALESCE(r.r3, 0),
+    p.rating_4_count = COALESCE(r.r4, 0),
+    p.rating_5_count = COALESCE(r.r5, 0);
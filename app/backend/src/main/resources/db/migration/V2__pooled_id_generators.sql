@@ -0,0 +1,16 @@
+-- Pooled id generation: each row holds the upper end of the next id block for its table,
+-- and every node reserves blocks of 50 (allocationSize on the entities). The application no
+-- longer relies on AUTO_INCREMENT, so Hibernate can batch inserts. Seeded so the first block
+-- starts right after the existing rows.
+
+CREATE TABLE id_generators (
+    name VARCHAR(64) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 50 FROM users
+UNION ALL SELECT 'products', COALESCE(MAX(id), 0) + 50 FROM products
+UNION ALL SELECT 'orders', COALESCE(MAX(id), 0) + 50 FROM orders
+UNION ALL SELECT 'order_items', COALESCE(MAX(id), 0) + 50 FROM order_items
+UNION ALL SELECT 'reviews', COALESCE(MAX(id), 0) + 50 FROM reviews;
@@ -0,0 +1,5 @@
+-- Record when each cache version was bumped, on the database clock. Readers evict the
+-- products updated since the bump they saw last, so a late poll cannot miss a change.
+
+ALTER TABLE cache_versions
+    ADD COLUMN bumped_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
@@ -0,0 +1,143 @@
+package com.ammas.pastries.controller;
+
+import com.ammas.pastries.dto.OrderRequest;
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.metrics.SqlAssert;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.repository.UserRepository;
+import com.ammas.pastries.security.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the SQL cost of the catalog and checkout endpoints, so an N+1 or a lost batch shows
+ * up as a failing build rather than in production. Caches are cleared before each test, so
+ * the counts are those of a cold request. It has a database of its own, so rows and id
+ * blocks used by other test classes cannot move the counts.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sql-count;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class CatalogAndCheckoutSqlTest {
+    
+    private static final int CATALOG_SIZE = 30;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private List<Product> products;
+    private User customer;
+    
+    @BeforeEach
+    void setUp() {
+        if (productRepository.count() == 0) {
+            List<Product> catalog = new ArrayList<>();
+            for (int i = 1; i <= CATALOG_SIZE; i++) {
+                Product product = new Product();
+                product.setName("Chocolate Truffle Cake " + i);
+                product.setDescription("Chocolate sponge with truffle ganache");
+                product.setPrice(BigDecimal.valueOf(4999 + i, 2));
+                product.setCategory(i % 2 == 0 ? "Chocolate" : "Fruit");
+                product.setStock(1000);
+                product.setFeatured(i % 4 == 0);
+                catalog.add(product);
+            }
+            productRepository.saveAll(catalog);
+            
+            User user = new User();
+            user.setName("Sql Count");
+            user.setEmail("sql-count@example.com");
+            user.setPassword("{noop}unused");
+            userRepository.save(user);
+        }
+        products = productRepository.findAll();
+        customer = userRepository.findByEmail("sql-count@example.com").orElseThrow();
+        entityManagerFactory.getCache().evictAll();
+    }
+    
+    @Test
+    void catalogPageIsOnePageQueryAndOneCount() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products").param("size", "12"))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        SqlAssert.assertThat(result.getRequest()).hasStatements(2).hasNoStatementRepeatedMoreThan(1);
+    }
+    
+    @Test
+    void productDetailIsOneQuery() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/products/{id}", products.get(0).getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        
+        SqlAssert.assertThat(result.getRequest()).hasStatements(1);
+    }
+    
+    @Test
+    void checkoutLocksAllProductsInOneQuery() throws Exception {
+        // Until the pooled optimizers hold a block of ids, checkouts also hit id_generators
+        checkout(products.subList(20, 21));
+        checkout(products.subList(21, 22));
+        entityManagerFactory.getCache().evictAll();
+        
+        MvcResult result = checkout(products.subList(0, 10));
+        
+        // Lock query, customer, order insert and item insert batch, plus one stock update
+        // per line: Hibernate does not batch the @DynamicUpdate statements
+        SqlAssert.assertThat(result.getRequest()).hasStatements(4 + 10);
+    }
+    
+    private MvcResult checkout(List<Product> lines) throws Exception {
+        OrderRequest request = new OrderRequest();
+        request.setDeliveryAddress("12 Baker Street");
+        request.setDeliveryCity("Chennai");
+        request.setDeliveryZip("600001");
+        request.setDeliveryPhone("+91 98765 43210");
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Product product : lines) {
+            OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+        
+        return mockMvc.perform(post("/api/orders")
+                        .with(user(UserDetailsImpl.build(customer)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -0,0 +1,190 @@
+package com.ammas.pastries.controller;
+
+import com.ammas.pastries.entity.Product;
+import com.ammas.pastries.entity.Review;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.repository.ProductRepository;
+import com.ammas.pastries.repository.ReviewRepository;
+import com.ammas.pastries.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the keyset-paginated review list page by page for every sort. Six reviews share
+ * each created_at and pairs share the rating too, so ties cross page boundaries and only
+ * the id tie-breaker orders them. One review is dated in the future, to check that the
+ * first page's created_at sentinel still includes it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReviewPaginationTest {
+    
+    private static final int REVIEWS = 24;
+    private static final int PAGE_SIZE = 4;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+    
+    private static Long productId;
+    private static final Map<Long, Review> reviews = new HashMap<>();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ReviewRepository reviewRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        if (productId != null) {
+            return;
+        }
+        Product product = new Product();
+        product.setName("Pagination Cake");
+        product.setPrice(BigDecimal.valueOf(2500, 2));
+        product.setCategory("Classic");
+        productId = productRepository.save(product).getId();
+        
+        for (int i = 0; i <= REVIEWS; i++) {
+            User user = new User();
+            user.setName("Reviewer " + i);
+            user.setEmail("reviewer-" + i + "@pagination.example.com");
+            user.setPassword("{noop}unused");
+            
+            Review review = new Review();
+            review.setUser(userRepository.save(user));
+            review.setProduct(product);
+            review.setComment("Review " + i);
+            LocalDateTime createdAt;
+            if (i < REVIEWS) {
+                // i and i + 12 get the same rating and the same created_at
+                review.setRating(i % 3 == 0 ? 5 : i % 3 == 1 ? 3 : 1);
+                createdAt = BASE.plusMinutes(i % 4);
+            } else {
+                // Later than now, still before the first page's now + 1 day start
+                review.setRating(5);
+                createdAt = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+            }
+            Review saved = reviewRepository.save(review);
+            // created_at is a @CreationTimestamp, so it is overwritten after the insert
+            jdbcTemplate.update("UPDATE reviews SET created_at = ? WHERE id = ?", createdAt, saved.getId());
+            saved.setCreatedAt(createdAt);
+            reviews.put(saved.getId(), saved);
+        }
+    }
+    
+    @Test
+    void newestWalksEveryReviewOnce() throws Exception {
+        assertEquals(expectedOrder(Comparator.comparing(Review::getCreatedAt).reversed()), walk("newest"));
+    }
+    
+    @Test
+    void highestWalksEveryReviewOnce() throws Exception {
+        assertEquals(expectedOrder(Comparator.comparing(Review::getRating).reversed()
+                .thenComparing(Comparator.comparing(Review::getCreatedAt).reversed())), walk("highest"));
+    }
+    
+    @Test
+    void lowestWalksEveryReviewOnce() throws Exception {
+        assertEquals(expectedOrder(Comparator.comparing(Review::getRating)
+                .thenComparing(Comparator.comparing(Review::getCreatedAt).reversed())), walk("lowest"));
+    }
+    
+    @Test
+    void firstPagesStartAtTheTopOfEachOrder() throws Exception {
+        // The future-dated review is newer than now; ratings 5 and 1 sit at the sentinels' edges
+        mockMvc.perform(reviewPage("newest", null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].comment").value("Review " + REVIEWS));
+        mockMvc.perform(reviewPage("highest", null))
+                .andExpect(jsonPath("$.content[0].rating").value(5))
+                .andExpect(jsonPath("$.content[0].comment").value("Review " + REVIEWS));
+        mockMvc.perform(reviewPage("lowest", null))
+                .andExpect(jsonPath("$.content[0].rating").value(1));
+    }
+    
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(reviewPage("newest", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        
+        String wrongFields = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("5|yesterday|7".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(reviewPage("highest", wrongFields))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void unknownSortIsABadRequest() throws Exception {
+        mockMvc.perform(reviewPage("random", null))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private List<Long> walk(String sort) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String body = mockMvc.perform(reviewPage(sort, cursor))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(review -> ids.add(review.get("id").asLong()));
+            cursor = page.get("hasMore").asBoolean() ? page.get("nextCursor").asText() : null;
+            assertTrue(++pages <= reviews.size(), "cursor does not advance");
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private MockHttpServletRequestBuilder reviewPage(String sort, String cursor) {
+        MockHttpServletRequestBuilder request = get("/api/reviews/product/{productId}", productId)
+                .param("sort", sort)
+                .param("size", String.valueOf(PAGE_SIZE));
+        return cursor == null ? request : request.param("cursor", cursor);
+    }
+    
+    private List<Long> expectedOrder(Comparator<Review> order) {
+        return reviews.entrySet().stream()
+                .sorted(Map.Entry.<Long, Review>comparingByValue(order)
+                        .thenComparing(Map.Entry.<Long, Review>comparingByKey().reversed()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.ammas.pastries.datasource;
+
+import com.ammas.pastries.dto.RegisterRequest;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two independent H2 databases stand in for the primary and the replica, so a row shows
+ * which one a statement actually ran on. A session that stays open across transactions
+ * must not keep the replica connection of a read-only transaction for a later write.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "replica.enabled=true",
+        "replica.datasource.hikari.jdbc-url=jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "replica.max-lag-ms=0"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    
+    private static boolean replicaSchemaCopied;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ReplicaRouter replicaRouter;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    @Qualifier("storefrontDataSource")
+    private DataSource primaryDataSource;
+    
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        if (!replicaSchemaCopied) {
+            // Hibernate only creates the schema on the primary
+            primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+            replicaSchemaCopied = true;
+        }
+        replicaRouter.checkHealth();
+        assertTrue(replicaRouter.canServe());
+    }
+    
+    @Test
+    void writeAfterAReadOnlyTransactionInTheSameSessionLandsOnThePrimary() {
+        // Only the replica knows this email, so finding it proves where the read ran
+        new JdbcTemplate(replicaDataSource).update(
+                "INSERT INTO users (id, name, email, password, role) VALUES (900001, 'Replica Only', ?, 'x', 'USER')",
+                "replica-only@routing.example.com");
+        
+        // One session for both transactions, as open-in-view would hold it for a request
+        EntityManager session = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(session));
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            assertEquals(Boolean.TRUE, readOnly.execute(
+                    status -> userRepository.existsByEmail("replica-only@routing.example.com")));
+            
+            User user = new User();
+            user.setName("Routing Test");
+            user.setEmail("same-session@routing.example.com");
+            user.setPassword("{noop}unused");
+            userRepository.save(user);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            session.close();
+        }
+        
+        assertEquals(1, countUsers(primaryDataSource, "same-session@routing.example.com"));
+        assertEquals(0, countUsers(replicaDataSource, "same-session@routing.example.com"));
+    }
+    
+    @Test
+    void registrationWritesToThePrimary() throws Exception {
+        register("new-customer@routing.example.com")
+                .andExpect(status().isOk());
+        
+        assertEquals(1, countUsers(primaryDataSource, "new-customer@routing.example.com"));
+        assertEquals(0, countUsers(replicaDataSource, "new-customer@routing.example.com"));
+    }
+    
+    private ResultActions register(String email) throws Exception {
+        RegisterRequest request = new RegisterRequest();
+        request.setName("Routing Test");
+        request.setEmail(email);
+        request.setPassword("secret-password");
+        return mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+    
+    private static int countUsers(DataSource dataSource, String email) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+    }
+}
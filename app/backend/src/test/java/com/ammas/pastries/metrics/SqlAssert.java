@@ -0,0 +1,85 @@
+package com.ammas.pastries.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pins the SQL cost of an endpoint in integration tests. With MockMvc (filters applied):
+ * <pre>
+ * SqlAssert.assertThat(result.getRequest()).hasStatementsAtMost(2).hasNoStatementRepeatedMoreThan(1);
+ * </pre>
+ * Against a running server with metrics.server-timing.enabled, from the response header:
+ * <pre>
+ * SqlAssert.assertThatServerTiming(response.getHeaders().getFirst("Server-Timing")).hasStatements(1);
+ * </pre>
+ */
+public class SqlAssert {
+    
+    private static final Pattern DB_STATEMENTS = Pattern.compile("db;desc=\"(\\d+) statements\"");
+    
+    private final int statements;
+    // Null when only the Server-Timing header is available
+    private final RequestSqlStats stats;
+    
+    private SqlAssert(int statements, RequestSqlStats stats) {
+        this.statements = statements;
+        this.stats = stats;
+    }
+    
+    public static SqlAssert assertThat(HttpServletRequest request) {
+        RequestSqlStats stats = RequestSqlStats.of(request);
+        if (stats == null) {
+            throw new AssertionError("Request was not measured; is RequestSqlMetricsFilter in the filter chain?");
+        }
+        return new SqlAssert(stats.getStatements(), stats);
+    }
+    
+    public static SqlAssert assertThatServerTiming(String serverTiming) {
+        int statements = statementsIn(serverTiming);
+        if (statements < 0) {
+            throw new AssertionError("No db entry in Server-Timing header: " + serverTiming);
+        }
+        return new SqlAssert(statements, null);
+    }
+    
+    /**
+     * @return the statement count from a Server-Timing header, or -1 if it has none
+     */
+    public static int statementsIn(String serverTiming) {
+        if (serverTiming == null) {
+            return -1;
+        }
+        Matcher matcher = DB_STATEMENTS.matcher(serverTiming);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+    
+    public SqlAssert hasStatements(int expected) {
+        if (statements != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but the request ran " + statements);
+        }
+        return this;
+    }
+    
+    public SqlAssert hasStatementsAtMost(int max) {
+        if (statements > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but the request ran " + statements);
+        }
+        return this;
+    }
+    
+    public SqlAssert hasNoStatementRepeatedMoreThan(int times) {
+        if (stats == null) {
+            throw new AssertionError("Repeated statements are only known for requests measured in-process");
+        }
+        Map<String, Integer> repeated = stats.getRepeatedStatements(times);
+        if (!repeated.isEmpty()) {
+            StringBuilder message = new StringBuilder("Statements repeated more than " + times + " times (N+1?):");
+            repeated.forEach((sql, count) -> message.append("\n  ").append(count).append("x ").append(sql));
+            throw new AssertionError(message.toString());
+        }
+        return this;
+    }
+}
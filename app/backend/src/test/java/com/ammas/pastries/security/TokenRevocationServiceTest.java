@@ -0,0 +1,113 @@
+package com.ammas.pastries.security;
+
+import com.ammas.pastries.entity.TokenRevocation;
+import com.ammas.pastries.repository.TokenRevocationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each test revokes its own user id, since the snapshot is shared by the application context.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenRevocationServiceTest {
+    
+    @Autowired
+    private TokenRevocationService revocationService;
+    
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+    
+    @Test
+    void tokenIssuedBeforeTheRevocationIsRejected() {
+        LocalDateTime revokedAt = revoke(9001L);
+        
+        assertTrue(revocationService.isRevoked(9001L, issuedAt(revokedAt.minusMinutes(5))));
+    }
+    
+    @Test
+    void tokenIssuedInTheSameSecondIsRejected() {
+        LocalDateTime revokedAt = revoke(9002L);
+        
+        // iat only has second precision, so it may read as just before the revocation instant
+        assertTrue(revocationService.isRevoked(9002L, issuedAt(revokedAt.truncatedTo(ChronoUnit.SECONDS))));
+    }
+    
+    @Test
+    void tokenIssuedInALaterSecondIsAccepted() {
+        LocalDateTime revokedAt = revoke(9003L);
+        
+        assertFalse(revocationService.isRevoked(9003L,
+                issuedAt(revokedAt.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1))));
+    }
+    
+    @Test
+    void tokenWithoutIssuedAtIsRejectedForARevokedUser() {
+        revoke(9004L);
+        
+        assertTrue(revocationService.isRevoked(9004L, null));
+    }
+    
+    @Test
+    void otherUsersAreNotAffected() {
+        LocalDateTime revokedAt = revoke(9005L);
+        
+        assertFalse(revocationService.isRevoked(9006L, issuedAt(revokedAt.minusMinutes(5))));
+    }
+    
+    @Test
+    void rolledBackRevocationNeverReachesTheSnapshot() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(5);
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            revocationService.revokeUser(9007L, "test");
+            status.setRollbackOnly();
+        });
+        
+        assertFalse(revocationService.isRevoked(9007L, issuedAt(before)));
+        revocationService.refresh();
+        assertFalse(revocationService.isRevoked(9007L, issuedAt(before)));
+    }
+    
+    @Test
+    void refreshDropsRevocationsOlderThanTheTokenLifetime() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expired = now.minusNanos(jwtExpirationMs * 1_000_000).minusMinutes(1);
+        LocalDateTime recent = now.minusMinutes(1);
+        revocationRepository.save(new TokenRevocation(9008L, expired, "test"));
+        revocationRepository.save(new TokenRevocation(9009L, recent, "test"));
+        
+        revocationService.refresh();
+        
+        // No token that old is still valid, so the row no longer needs to match anything
+        assertFalse(revocationService.isRevoked(9008L, issuedAt(expired.minusMinutes(1))));
+        assertTrue(revocationService.isRevoked(9009L, issuedAt(recent.minusMinutes(1))));
+    }
+    
+    private LocalDateTime revoke(Long userId) {
+        revocationService.revokeUser(userId, "test");
+        return revocationRepository.findById(userId).orElseThrow().getRevokedAt();
+    }
+    
+    private static Date issuedAt(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
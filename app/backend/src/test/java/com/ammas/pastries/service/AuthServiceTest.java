@@ -0,0 +1,73 @@
+package com.ammas.pastries.service;
+
+import com.ammas.pastries.dto.LoginRequest;
+import com.ammas.pastries.entity.User;
+import com.ammas.pastries.exception.TooManyRequestsException;
+import com.ammas.pastries.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The account bucket holds five failed logins (the default capacity); each test uses its own
+ * account, since the buckets are shared by the application context.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+    
+    private static final String PASSWORD = "correct-horse";
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Test
+    void successfulLoginsAreNotCharged() {
+        String email = createUser("regular@auth.example.com");
+        
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(authService.authenticateUser(login(email, PASSWORD)).getToken());
+        }
+    }
+    
+    @Test
+    void failedLoginsLockTheAccountEvenForTheRightPassword() {
+        String email = createUser("stuffed@auth.example.com");
+        
+        for (int i = 0; i < 5; i++) {
+            assertThrows(BadCredentialsException.class, () -> authService.authenticateUser(login(email, "wrong")));
+        }
+        
+        // The key is normalised, so changing the case does not get a fresh bucket
+        assertThrows(TooManyRequestsException.class,
+                () -> authService.authenticateUser(login(email.toUpperCase(), PASSWORD)));
+    }
+    
+    private String createUser(String email) {
+        User user = new User();
+        user.setName("Auth Test");
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        userRepository.save(user);
+        return email;
+    }
+    
+    private static LoginRequest login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ammas.pastries.service;
+
+import com.ammas.pastries.dto.CustomerAnalyticsDTO;
+import com.ammas.pastries.entity.CustomerSketch;
+import com.ammas.pastries.repository.CustomerSketchRepository;
+import com.ammas.pastries.repository.OrderRepository;
+import com.ammas.pastries.util.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerAnalyticsServiceTest {
+    
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 8);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 14);
+    // The preceding week, same length as [FROM, TO]
+    private static final LocalDate PREVIOUS_FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate PREVIOUS_TO = LocalDate.of(2024, 3, 7);
+    
+    @Mock
+    private CustomerSketchRepository sketchRepository;
+    
+    @Mock
+    private OrderRepository orderRepository;
+    
+    @InjectMocks
+    private CustomerAnalyticsService service;
+    
+    @Test
+    void repeatCustomersAreTheOverlapWithThePreviousPeriod() {
+        // Customers 1-20000 this week, 10001-25000 last week: 10000 came back
+        storedDays(FROM, TO, 1, 20_000);
+        storedDays(PREVIOUS_FROM, PREVIOUS_TO, 10_001, 25_000);
+        
+        CustomerAnalyticsDTO analytics = service.getCustomerAnalytics(FROM, TO);
+        
+        // Inclusion-exclusion carries the error of the union estimate
+        double tolerance = 3 * HyperLogLog.RELATIVE_STANDARD_ERROR;
+        assertEquals(20_000, analytics.getDistinctCustomers(), 20_000 * tolerance);
+        assertEquals(10_000, analytics.getRepeatCustomers(), 25_000 * tolerance);
+        assertEquals(HyperLogLog.RELATIVE_STANDARD_ERROR, analytics.getRelativeStandardError());
+    }
+    
+    @Test
+    void repeatCountIsClampedToTheDistinctCount() {
+        storedDays(FROM, TO, 1, 8_000);
+        storedDays(PREVIOUS_FROM, PREVIOUS_TO, 1, 8_000);
+        
+        CustomerAnalyticsDTO analytics = service.getCustomerAnalytics(FROM, TO);
+        
+        assertEquals(analytics.getDistinctCustomers(), analytics.getRepeatCustomers());
+    }
+    
+    @Test
+    void disjointPeriodsHaveFewRepeatsAndNeverANegativeCount() {
+        storedDays(FROM, TO, 1, 8_000);
+        storedDays(PREVIOUS_FROM, PREVIOUS_TO, 100_001, 108_000);
+        
+        CustomerAnalyticsDTO analytics = service.getCustomerAnalytics(FROM, TO);
+        
+        assertTrue(analytics.getRepeatCustomers() >= 0);
+        assertEquals(0, analytics.getRepeatCustomers(), 16_000 * 3 * HyperLogLog.RELATIVE_STANDARD_ERROR);
+    }
+    
+    @Test
+    void invertedRangeIsRejected() {
+        assertThrows(RuntimeException.class, () -> service.getCustomerAnalytics(TO, FROM));
+    }
+    
+    @Test
+    void rebuildRejectsRangesBeyondTheLimitBeforeScanningOrders() {
+        ReflectionTestUtils.setField(service, "rebuildMaxDays", 366L);
+        
+        assertThrows(RuntimeException.class, () -> service.rebuild(FROM, FROM.plusDays(366)));
+        assertThrows(RuntimeException.class, () -> service.rebuild(TO, FROM));
+        verifyNoInteractions(orderRepository, sketchRepository);
+    }
+    
+    private void storedDays(LocalDate from, LocalDate to, long fromId, long toId) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = fromId; id <= toId; id++) {
+            sketch.offer(id);
+        }
+        // One merged row stands in for the period's daily rows; merging is lossless
+        when(sketchRepository.findBySketchDateBetween(from, to))
+                .thenReturn(List.of(new CustomerSketch(from, sketch.toBytes(), null)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.ammas.pastries.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTest {
+    
+    // The hash is deterministic, so these are fixed inputs rather than a statistical test
+    private static final double TOLERANCE = 3 * HyperLogLog.RELATIVE_STANDARD_ERROR;
+    
+    @Test
+    void estimatesStayWithinThreeStandardErrors() {
+        for (int distinct : new int[] {1_000, 100_000}) {
+            HyperLogLog sketch = sketchOf(1, distinct);
+            assertEquals(distinct, sketch.estimate(), distinct * TOLERANCE, "distinct=" + distinct);
+        }
+    }
+    
+    @Test
+    void repeatedIdsAreCountedOnce() {
+        HyperLogLog sketch = sketchOf(1, 5_000);
+        for (long id = 1; id <= 5_000; id++) {
+            sketch.offer(id);
+        }
+        assertEquals(5_000, sketch.estimate(), 5_000 * TOLERANCE);
+    }
+    
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+    
+    @Test
+    void mergeEqualsSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(1, 60_000);
+        HyperLogLog second = sketchOf(40_001, 100_000);
+        
+        first.merge(second);
+        
+        HyperLogLog union = sketchOf(1, 100_000);
+        assertArrayEquals(union.toBytes(), first.toBytes());
+        assertEquals(union.estimate(), first.estimate());
+    }
+    
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(1, 20_000);
+        
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+        
+        assertArrayEquals(sketch.toBytes(), copy.toBytes());
+        assertEquals(sketch.estimate(), copy.estimate());
+    }
+    
+    @Test
+    void fromBytesCopiesItsInput() {
+        byte[] bytes = sketchOf(1, 1_000).toBytes();
+        HyperLogLog copy = HyperLogLog.fromBytes(bytes);
+        long estimate = copy.estimate();
+        
+        bytes[0] = 60;
+        
+        assertEquals(estimate, copy.estimate());
+    }
+    
+    @Test
+    void fromBytesRejectsWrongSize() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[16]));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(null));
+    }
+    
+    private static HyperLogLog sketchOf(long fromId, long toId) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = fromId; id <= toId; id++) {
+            sketch.offer(id);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ammas.pastries.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every call passes its own clock reading, so the refill arithmetic is checked without sleeping.
+ */
+class TokenBucketTest {
+    
+    private static final long T0 = 1_700_000_000_000L;
+    
+    @Test
+    void burstUpToCapacityThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 60, T0);
+        
+        assertEquals(0, bucket.tryAcquire(T0));
+        assertEquals(0, bucket.tryAcquire(T0));
+        assertEquals(0, bucket.tryAcquire(T0));
+        // One token per second
+        assertEquals(1000, bucket.tryAcquire(T0));
+        assertEquals(750, bucket.tryAcquire(T0 + 250));
+        assertEquals(0, bucket.tryAcquire(T0 + 1000));
+    }
+    
+    @Test
+    void refillStopsAtCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 60, T0);
+        
+        assertEquals(0, bucket.tryAcquire(T0 + 60_000));
+        assertEquals(0, bucket.tryAcquire(T0 + 60_000));
+        assertEquals(1000, bucket.tryAcquire(T0 + 60_000));
+    }
+    
+    @Test
+    void frequentPollingDoesNotLoseFractionalRefill() {
+        // Half a token per minute: each 50 ms poll is worth less than one thousandth of a token
+        TokenBucket bucket = new TokenBucket(1, 0.5, T0);
+        assertEquals(0, bucket.tryAcquire(T0));
+        long wait = bucket.tryAcquire(T0);
+        assertTrue(Math.abs(wait - 120_000) <= 1, "wait was " + wait);
+        
+        long now = T0;
+        while (bucket.tryAcquire(now) > 0) {
+            now += 50;
+            assertTrue(now <= T0 + 120_050, "refill was lost to rounding");
+        }
+    }
+    
+    @Test
+    void checkingDoesNotTakeAToken() {
+        TokenBucket bucket = new TokenBucket(1, 60, T0);
+        
+        assertEquals(0, bucket.timeUntilAvailable(T0));
+        assertEquals(0, bucket.timeUntilAvailable(T0));
+        assertEquals(0, bucket.tryAcquire(T0));
+        assertEquals(400, bucket.timeUntilAvailable(T0 + 600));
+        assertEquals(0, bucket.timeUntilAvailable(T0 + 1000));
+        assertEquals(0, bucket.tryAcquire(T0 + 1000));
+    }
+    
+    @Test
+    void bucketWithoutRefillNeverRecovers() {
+        TokenBucket bucket = new TokenBucket(1, 0, T0);
+        
+        assertEquals(0, bucket.tryAcquire(T0));
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(T0 + TimeUnit.DAYS.toMillis(365)));
+    }
+    
+    @Test
+    void clockGoingBackwardsDoesNotRefill() {
+        TokenBucket bucket = new TokenBucket(1, 60, T0);
+        
+        assertEquals(0, bucket.tryAcquire(T0 + 5000));
+        assertEquals(1000, bucket.tryAcquire(T0 + 5000));
+        assertTrue(bucket.tryAcquire(T0) > 0);
+        assertTrue(bucket.tryAcquire(T0 - 10_000) > 0);
+    }
+    
+    @Test
+    void maximumCapacityFitsTheTokenBits() {
+        TokenBucket bucket = new TokenBucket(16_000, 0, T0);
+        
+        for (int i = 0; i < 16_000; i++) {
+            assertEquals(0, bucket.tryAcquire(T0));
+        }
+        assertEquals(Long.MAX_VALUE, bucket.tryAcquire(T0));
+    }
+    
+    @Test
+    void capacityOutsideTheTokenBitsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 60, T0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(16_001, 60, T0));
+    }
+    
+    @Test
+    void timeIsKeptRelativeToTheBucketsCreation() {
+        // Epoch milliseconds in 2050 no longer fit in 40 bits
+        long created = 2_524_608_000_000L;
+        assertTrue(created > (1L << 40));
+        TokenBucket bucket = new TokenBucket(1, 60, created);
+        
+        assertEquals(0, bucket.tryAcquire(created));
+        assertEquals(500, bucket.tryAcquire(created + 500));
+        assertEquals(0, bucket.tryAcquire(created + 1000));
+    }
+    
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0, T0);
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryAcquire(T0) == 0) {
+                        taken.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        
+        assertEquals(1000, taken.get());
+    }
+}
@@ -1,5 +1,8 @@
 -- AMMAS Pastries - Premium Cake Shop Database Schema
 -- MySQL Production-Ready Schema
+-- This is schema version 1.1 (Flyway V1 plus the development sample data). On first start the
+-- backend baselines a database created from it and applies the later migrations in
+-- backend/src/main/resources/db/migration; make table changes there, not here.
 
 CREATE DATABASE IF NOT EXISTS ammas_pastries 
 CHARACTER SET utf8mb4 
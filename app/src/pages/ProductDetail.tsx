@@ -16,6 +16,7 @@ const ProductDetail: React.FC = () => {
   
   const [product, setProduct] = useState<Product | null>(null);
   const [reviews, setReviews] = useState<Review[]>([]);
+  const [reviewCursor, setReviewCursor] = useState<string | undefined>(undefined);
   const [relatedProducts, setRelatedProducts] = useState<Product[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [quantity, setQuantity] = useState(1);
@@ -34,7 +35,8 @@ const ProductDetail: React.FC = () => {
         ]);
         
         setProduct(productData);
-        setReviews(reviewsData);
+        setReviews(reviewsData.content);
+        setReviewCursor(reviewsData.hasMore ? reviewsData.nextCursor : undefined);
         
         // Fetch related products from same category
         const related = await apiService.getProductsByCategory(productData.category);
@@ -57,6 +59,17 @@ const ProductDetail: React.FC = () => {
     window.scrollTo(0, 0);
   }, [id, navigate, getCartItem]);
 
+  const loadMoreReviews = async () => {
+    if (!id || !reviewCursor) return;
+    try {
+      const page = await apiService.getProductReviews(parseInt(id), 'newest', reviewCursor);
+      setReviews((current) => [...current, ...page.content]);
+      setReviewCursor(page.hasMore ? page.nextCursor : undefined);
+    } catch (error) {
+      console.error('Failed to load more reviews:', error);
+    }
+  };
+
   const handleAddToCart = () => {
     if (product) {
       if (isInCart(product.id)) {
@@ -320,6 +333,26 @@ const ProductDetail: React.FC = () => {
             Customer Reviews
           </h2>
           
+          {product.ratingHistogram && product.reviewCount > 0 && (
+            <div className="card-luxury p-6 mb-6 max-w-md">
+              {[5, 4, 3, 2, 1].map((stars) => {
+                const count = product.ratingHistogram?.[stars] ?? 0;
+                return (
+                  <div key={stars} className="flex items-center gap-3 mb-2 last:mb-0">
+                    <span className="w-12 text-sm text-imperial-brown/70">{stars} star</span>
+                    <div className="flex-1 h-2 rounded-full bg-imperial-soft overflow-hidden">
+                      <div
+                        className="h-full bg-imperial-gold"
+                        style={{ width: `${(count / product.reviewCount) * 100}%` }}
+                      />
+                    </div>
+                    <span className="w-10 text-right text-sm text-imperial-brown/60">{count}</span>
+                  </div>
+                );
+              })}
+            </div>
+          )}
+          
           {reviews.length === 0 ? (
             <div className="text-center py-12 bg-white rounded-2xl">
               <p className="text-imperial-brown/60">No reviews yet. Be the first to review!</p>
@@ -358,6 +391,14 @@ const ProductDetail: React.FC = () => {
               ))}
             </div>
           )}
+          
+          {reviewCursor && (
+            <div className="text-center mt-8">
+              <button onClick={loadMoreReviews} className="btn-secondary">
+                Load more reviews
+              </button>
+            </div>
+          )}
         </motion.div>
 
         {/* Related Products */}
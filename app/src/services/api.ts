@@ -3,7 +3,7 @@ import type { AxiosInstance, AxiosError } from 'axios';
 import type { 
   AuthResponse, LoginRequest, RegisterRequest, 
   Product, ProductRequest, Order, OrderRequest, 
-  Review, ReviewRequest, DashboardStats, PageResponse 
+  Review, ReviewPage, ReviewRequest, DashboardStats, PageResponse 
 } from '@/types';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
@@ -140,8 +140,18 @@ class ApiService {
   }
 
   // Review APIs
-  async getProductReviews(productId: number): Promise<Review[]> {
-    const response = await this.client.get<Review[]>(`/reviews/product/${productId}`);
+  async getProductReviews(
+    productId: number,
+    sort: string = 'newest',
+    cursor?: string,
+    size: number = 10
+  ): Promise<ReviewPage> {
+    const params = new URLSearchParams();
+    params.append('sort', sort);
+    if (cursor) params.append('cursor', cursor);
+    params.append('size', size.toString());
+    
+    const response = await this.client.get<ReviewPage>(`/reviews/product/${productId}?${params}`);
     return response.data;
   }
 
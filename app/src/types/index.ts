@@ -26,6 +26,7 @@ export interface Product {
   reviewCount: number;
   featured: boolean;
   createdAt: string;
+  ratingHistogram?: Record<number, number>;
 }
 
 export interface CartItem {
@@ -68,6 +69,14 @@ export interface Review {
   createdAt: string;
 }
 
+export interface ReviewPage {
+  content: Review[];
+  sort: 'newest' | 'highest' | 'lowest';
+  size: number;
+  nextCursor?: string;
+  hasMore: boolean;
+}
+
 export interface DashboardStats {
   totalOrders: number;
   totalRevenue: number;
@@ -76,6 +85,9 @@ export interface DashboardStats {
   pendingOrders: number;
   ordersByStatus: Record<string, number>;
   salesByDate: Record<string, number>;
+  activeCustomersToday: number;
+  activeCustomers7Days: number;
+  activeCustomers30Days: number;
 }
 
 export interface LoginRequest {